@@ -0,0 +1,119 @@
+package graph.bench;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.metrics.NoOpMetrics;
+import graph.reach.ReachabilityIndex;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time of a ReachabilityIndex against its query latency on random vertex pairs,
+ * with a fresh traversal per query as the baseline. DENSE_DAG is large3.json scaled up,
+ * and its labels are the largest of the families.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ReachabilityBenchmark {
+
+    private static final int QUERIES = 4096;
+    private static final int TRAVERSALS = 16;
+
+    @Param({"DENSE_DAG", "PLANTED_SCC", "POWER_LAW"})
+    public GraphGenerator.Family family;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int degree;
+
+    @Param({"256"})
+    public int budgetMb;
+
+    private CSRGraph graph;
+    private SCCResult scc;
+    private CSRGraph dag;
+    private ReachabilityIndex index;
+    private int[] from;
+    private int[] to;
+    private int[] mark;
+    private int[] queue;
+    private int epoch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new GraphGenerator(family, size, degree, 42).build();
+        scc = new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE);
+        dag = Kosaraju.buildCondensationGraph(graph, scc);
+        index = ReachabilityIndex.build(scc, dag, (long) budgetMb << 20, NoOpMetrics.INSTANCE);
+        Random rnd = new Random(7);
+        from = new int[QUERIES];
+        to = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            from[i] = rnd.nextInt(size);
+            to[i] = rnd.nextInt(size);
+        }
+        mark = new int[size];
+        queue = new int[size];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ReachabilityIndex build() {
+        return ReachabilityIndex.build(scc, dag, (long) budgetMb << 20, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @OperationsPerInvocation(QUERIES)
+    public int indexQuery() {
+        int reachable = 0;
+        for (int i = 0; i < QUERIES; i++)
+            if (index.reaches(from[i], to[i])) reachable++;
+        return reachable;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @OperationsPerInvocation(TRAVERSALS)
+    public int traversalQuery() {
+        int reachable = 0;
+        for (int i = 0; i < TRAVERSALS; i++)
+            if (bfs(from[i], to[i])) reachable++;
+        return reachable;
+    }
+
+    private boolean bfs(int s, int t) {
+        epoch++;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        mark[s] = epoch;
+        while (head < tail) {
+            int u = queue[head++];
+            if (u == t) return true;
+            for (int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                if (mark[v] != epoch) {
+                    mark[v] = epoch;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return false;
+    }
+}
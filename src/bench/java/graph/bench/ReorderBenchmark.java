@@ -0,0 +1,80 @@
+package graph.bench;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.dagsp.CondensationPaths;
+import graph.metrics.NoOpMetrics;
+import graph.reorder.VertexReordering;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+import graph.topo.TopoSort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SCC decomposition and condensation shortest paths after relabelling. Vertex ids are
+ * first shuffled, as they are for graphs exported from external systems; "NONE" runs on
+ * the shuffled ids, the other settings on a VertexReordering of them. Paths start from
+ * the generator's vertex 0 under every setting. Add
+ * -prof perfnorm (Linux perf) to see the cache and TLB misses per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ReorderBenchmark {
+
+    @Param({"POWER_LAW", "PLANTED_SCC", "DENSE_DAG"})
+    public GraphGenerator.Family family;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int degree;
+
+    @Param({"NONE", "BFS", "DFS", "DEGREE", "RCM"})
+    public String strategy;
+
+    private CSRGraph graph;
+    private SCCResult scc;
+    private int[] order;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CSRGraph generated = new GraphGenerator(family, size, degree, 42).build();
+        List<Integer> ids = new ArrayList<>(size);
+        for (int v = 0; v < size; v++) ids.add(v);
+        Collections.shuffle(ids, new Random(7));
+        int[] shuffle = new int[size];
+        for (int v = 0; v < size; v++) shuffle[v] = ids.get(v);
+        VertexReordering shuffled = VertexReordering.of(shuffle);
+        graph = shuffled.permute(generated);
+        source = shuffled.toPermuted(0);
+        if (!strategy.equals("NONE")) {
+            VertexReordering reordering = VertexReordering.compute(graph, VertexReordering.strategyForName(strategy));
+            graph = reordering.permute(graph);
+            source = reordering.toPermuted(source);
+        }
+        graph.reverse();
+        scc = new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE);
+        order = TopoSort.kahnOrder(Kosaraju.buildCondensationGraph(graph, scc), NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public SCCResult kosaraju() {
+        return new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public double[] condensationPaths() {
+        return new CondensationPaths(graph, scc, order)
+                .shortestPaths(source, CondensationPaths.IntraComponentCost.ZERO, NoOpMetrics.INSTANCE);
+    }
+}
@@ -0,0 +1,71 @@
+package graph.bench;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.metrics.NoOpMetrics;
+import graph.scc.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512k", "-Xmx8g"})
+public class SCCBenchmark {
+
+    @Param({"CHAIN", "DENSE_DAG", "POWER_LAW", "PLANTED_SCC"})
+    public GraphGenerator.Family family;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int degree;
+
+    private CSRGraph graph;
+    private SCCResult scc;
+    private List<List<Integer>> sccLists;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = new GraphGenerator(family, size, degree, 42).build();
+        graph.reverse();
+        scc = new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE);
+        sccLists = scc.components();
+    }
+
+    @Benchmark
+    public List<List<Integer>> kosarajuFindSCCs() {
+        return Kosaraju.findSCCs(graph, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public SCCResult kosarajuDecompose() {
+        return new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public SCCResult tarjanDecompose() {
+        return new Tarjan().decompose(graph, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public SCCResult parallelDecompose() {
+        return new ParallelSCC().decompose(graph, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public CSRGraph buildCondensationGraph() {
+        return Kosaraju.buildCondensationGraph(graph, scc);
+    }
+
+    @Benchmark
+    public List<Set<Integer>> buildCondensationGraphSets() {
+        return Kosaraju.buildCondensationGraph(graph, sccLists);
+    }
+}
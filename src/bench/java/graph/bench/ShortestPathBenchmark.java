@@ -0,0 +1,50 @@
+package graph.bench;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.dagsp.DAGShortestPath;
+import graph.metrics.NoOpMetrics;
+import graph.scc.Kosaraju;
+import graph.topo.TopoSort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-source relaxation over the (min-weight) condensation of each family.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ShortestPathBenchmark {
+
+    @Param({"CHAIN", "DENSE_DAG", "POWER_LAW", "PLANTED_SCC"})
+    public GraphGenerator.Family family;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int degree;
+
+    private CSRGraph dag;
+    private int[] order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CSRGraph graph = new GraphGenerator(family, size, degree, 42).build();
+        dag = Kosaraju.buildCondensationGraph(graph, new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE));
+        List<Integer> topo = TopoSort.kahnTopologicalSort(dag, NoOpMetrics.INSTANCE);
+        order = topo.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public double[] shortestPathDAG() {
+        return DAGShortestPath.shortestPathDAG(dag, order, order[0], NoOpMetrics.INSTANCE);
+    }
+}
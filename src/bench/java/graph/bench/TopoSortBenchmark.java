@@ -0,0 +1,65 @@
+package graph.bench;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.metrics.NoOpMetrics;
+import graph.scc.Kosaraju;
+import graph.topo.LevelOrder;
+import graph.topo.ParallelTopoSort;
+import graph.topo.TopoSort;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kahn's sort over the condensation of each family, which is what the pipeline sorts,
+ * sequentially (boxed, primitive FIFO and smallest-id-first) and level-synchronously
+ * on all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TopoSortBenchmark {
+
+    @Param({"CHAIN", "DENSE_DAG", "POWER_LAW", "PLANTED_SCC"})
+    public GraphGenerator.Family family;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"4"})
+    public int degree;
+
+    private CSRGraph dag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CSRGraph graph = new GraphGenerator(family, size, degree, 42).build();
+        dag = Kosaraju.buildCondensationGraph(graph, new Kosaraju().decompose(graph, NoOpMetrics.INSTANCE));
+    }
+
+    @Benchmark
+    public List<Integer> kahnTopologicalSort() {
+        return TopoSort.kahnTopologicalSort(dag, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public int[] kahnOrder() {
+        return TopoSort.kahnOrder(dag, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public int[] kahnOrderSmallestFirst() {
+        return TopoSort.kahnOrderSmallestFirst(dag, NoOpMetrics.INSTANCE);
+    }
+
+    @Benchmark
+    public LevelOrder parallelLevels() {
+        return new ParallelTopoSort().sort(dag, NoOpMetrics.INSTANCE);
+    }
+}
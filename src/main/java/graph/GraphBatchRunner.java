@@ -1,94 +1,446 @@
 package graph;
 
-import com.google.gson.*;
+import graph.cache.CachedResult;
+import graph.cache.ResultCache;
+import graph.core.CSRGraph;
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphLoader;
+import graph.io.LoadedGraph;
 import graph.metrics.*;
+import graph.reorder.VertexReordering;
 import graph.scc.Kosaraju;
+import graph.scc.ParallelSCC;
+import graph.scc.SCCEngine;
+import graph.scc.SCCResult;
+import graph.topo.TopoResult;
 import graph.topo.TopoSort;
-import graph.dagsp.DAGShortestPath;
+import graph.dagsp.CondensationPaths;
 
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class GraphBatchRunner {
 
+    private static final String USAGE = "Usage: GraphBatchRunner [--data DIR] [--scc kosaraju|tarjan|parallel]"
+            + " [--scc-parallelism N] [--intra zero|shortest] [--reorder none|bfs|dfs|degree|rcm]"
+            + " [--workers N] [--io-threads N] [--virtual-io] [--warmup W] [--trials N]"
+            + " [--export FILE.jsonl|FILE.csv]... [--run-id ID] [--cache DIR] [--cache-mb MB]";
+
+    static final class Options {
+        File dataFolder = new File("src/main/resources/data/");
+        SCCEngine engine = new Kosaraju();
+        CondensationPaths.IntraComponentCost intraCost = CondensationPaths.IntraComponentCost.SHORTEST_PATH;
+        int workers = 1;
+        int ioThreads = 1;
+        boolean virtualIo;
+        int warmup = 0;
+        int trials = 1;
+        String runId = MetricsExport.newRunId();
+        List<Path> exports = new ArrayList<>();
+        Path cacheDir;
+        long cacheMemoryBytes = 256L << 20;
+        ResultCache cache;
+        VertexReordering.Strategy reorder;
+
+        String cacheKey(File file) throws IOException {
+            return ResultCache.key(file.toPath(), engine.name(), reorder == null ? "none" : reorder.name(),
+                    "intra=" + intraCost);
+        }
+    }
+
     public static void main(String[] args) throws IOException {
         System.out.println("========== Assignment 4 – Batch Graph Runner ==========\n");
 
-        File dataFolder = new File("src/main/resources/data/");
-        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".json"));
+        Options options = new Options();
+        boolean engineChosen = false;
+        int sccParallelism = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--data") && i + 1 < args.length) {
+                    options.dataFolder = new File(args[++i]);
+                } else if (args[i].equals("--scc") && i + 1 < args.length) {
+                    options.engine = SCCEngine.forName(args[++i]);
+                    engineChosen = true;
+                } else if (args[i].equals("--scc-parallelism") && i + 1 < args.length) {
+                    sccParallelism = Math.max(1, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--intra") && i + 1 < args.length) {
+                    options.intraCost = CondensationPaths.costForName(args[++i]);
+                } else if (args[i].equals("--workers") && i + 1 < args.length) {
+                    options.workers = Math.max(1, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--io-threads") && i + 1 < args.length) {
+                    options.ioThreads = Math.max(1, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--virtual-io")) {
+                    options.virtualIo = true;
+                } else if (args[i].equals("--warmup") && i + 1 < args.length) {
+                    options.warmup = Math.max(0, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--trials") && i + 1 < args.length) {
+                    options.trials = Math.max(1, Integer.parseInt(args[++i]));
+                } else if (args[i].equals("--export") && i + 1 < args.length) {
+                    options.exports.add(Paths.get(args[++i]));
+                } else if (args[i].equals("--run-id") && i + 1 < args.length) {
+                    options.runId = args[++i];
+                } else if (args[i].equals("--reorder") && i + 1 < args.length) {
+                    String strategy = args[++i];
+                    options.reorder = strategy.equals("none") ? null : VertexReordering.strategyForName(strategy);
+                } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                    options.cacheDir = Paths.get(args[++i]);
+                } else if (args[i].equals("--cache-mb") && i + 1 < args.length) {
+                    options.cacheMemoryBytes = Long.parseLong(args[++i]) << 20;
+                } else {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + "\n" + USAGE);
+            return;
+        }
+
+        // --scc-parallelism alone selects the parallel engine; it cannot be combined with another one.
+        if (sccParallelism > 0) {
+            if (engineChosen && !(options.engine instanceof ParallelSCC)) {
+                System.out.println("--scc-parallelism only applies to --scc parallel, not " + options.engine.name()
+                        + "\n" + USAGE);
+                return;
+            }
+            options.engine = new ParallelSCC(sccParallelism);
+        }
+        System.out.println("SCC engine: " + options.engine.name() + ", intra-SCC cost: " + options.intraCost
+                + ", workers: " + options.workers + ", warm-up: " + options.warmup
+                + ", trials: " + options.trials
+                + (options.reorder == null ? "" : ", reorder: " + options.reorder) + "\n");
+        if (options.cacheDir != null) {
+            options.cache = new ResultCache(options.cacheDir, options.cacheMemoryBytes);
+        }
+
+        File[] files = options.dataFolder.listFiles((dir, name) ->
+                name.endsWith(".json") || name.endsWith(BinaryGraphFormat.EXTENSION));
 
         if (files == null || files.length == 0) {
             System.out.println("No dataset files found in /data/ folder!");
             return;
         }
+        Arrays.sort(files, Comparator.comparing(File::getName));
 
-        System.out.printf("%-15s %-12s %-12s %-12s %-15s %-15s %-15s%n",
+        System.out.printf("%-15s %-12s %-12s %-12s %-15s %-15s %-15s %-12s%n",
                 "Dataset", "Nodes", "Edges", "SCCs", "SCC Time(ms)",
-                "Topo Time(ms)", "SP Time(ms)");
-        System.out.println("-----------------------------------------------------------------------------------------");
+                "Topo Time(ms)", "SP Time(ms)", "Load(MB/s)");
+        System.out.println("-----------------------------------------------------------------------------------------------------");
+
+        List<DatasetResult> results = new ArrayList<>();
+        if (options.workers == 1 && !options.virtualIo && options.ioThreads == 1) {
+            for (File file : files) {
+                DatasetResult result = runSingleDataset(file, options);
+                result.print();
+                results.add(result);
+            }
+        } else {
+            results = runConcurrently(files, options);
+        }
 
-        for (File file : files) {
-            runSingleDataset(file);
+        printPhaseBreakdown(results, options);
+
+        if (options.trials > 1) {
+            printTrialStatistics(results);
+        }
+
+        if (options.cache != null) {
+            System.out.println("\nResult cache " + options.cacheDir + ": " + options.cache.hits() + " hit(s) ("
+                    + options.cache.diskHits() + " from disk), " + options.cache.misses() + " miss(es)");
+        }
+
+        if (!options.exports.isEmpty()) {
+            List<MetricsRecord> records = new ArrayList<>();
+            for (DatasetResult result : results) result.addRecords(records, options);
+            for (Path export : options.exports) {
+                MetricsExport.write(records, export);
+                System.out.println("\nExported " + records.size() + " records of run " + options.runId + " to " + export);
+            }
+            // Cached datasets have no measurements, so they are left out rather than exported with stale figures.
+            int cached = 0;
+            for (DatasetResult result : results) if (result.cached) cached++;
+            if (cached > 0) {
+                System.out.println(cached + " cached dataset(s) were not measured and are not in the export;"
+                        + " run without --cache for a complete comparison.");
+            }
         }
 
         System.out.println("\nBatch test completed for all datasets.");
     }
 
-    private static void runSingleDataset(File file) {
+    // Loads on an I/O executor and computes on a bounded worker pool, so reading the next
+    // files overlaps with solving the current ones. At most 2 * workers graphs are held
+    // in memory at once. Rows are printed in file-name order as soon as their prefix is done.
+    private static List<DatasetResult> runConcurrently(File[] files, Options options) {
+        ExecutorService io = newIoExecutor(options);
+        ExecutorService compute = Executors.newFixedThreadPool(options.workers);
+        Semaphore inFlight = new Semaphore(2 * options.workers);
+        List<CompletableFuture<DatasetResult>> results = new ArrayList<>();
+        int printed = 0;
+
         try {
-            Gson gson = new Gson();
-            Reader reader = new FileReader(file);
-            JsonObject data = gson.fromJson(reader, JsonObject.class);
-            reader.close();
-
-            int n = data.get("n").getAsInt();
-            JsonArray edges = data.getAsJsonArray("edges");
-            int source = data.get("source").getAsInt();
-
-            List<List<Integer>> adj = new ArrayList<>();
-            double[][] weight = new double[n][n];
-            for (int i = 0; i < n; i++) {
-                adj.add(new ArrayList<>());
-                Arrays.fill(weight[i], Double.POSITIVE_INFINITY);
-            }
-
-            for (JsonElement e : edges) {
-                JsonObject obj = e.getAsJsonObject();
-                int u = obj.get("u").getAsInt();
-                int v = obj.get("v").getAsInt();
-                double w = obj.get("w").getAsDouble();
-                adj.get(u).add(v);
-                weight[u][v] = w;
-            }
-
-            AlgorithmMetrics sccMetrics = new AlgorithmMetrics();
-            sccMetrics.startTimer();
-            List<List<Integer>> sccs = Kosaraju.findSCCs(adj, n, sccMetrics);
-            sccMetrics.stopTimer();
-
-            List<Set<Integer>> dag = Kosaraju.buildCondensationGraph(adj, sccs);
-
-            AlgorithmMetrics topoMetrics = new AlgorithmMetrics();
-            topoMetrics.startTimer();
-            List<Integer> topoOrder = TopoSort.kahnTopologicalSort(dag, topoMetrics);
-            topoMetrics.stopTimer();
-
-            AlgorithmMetrics spMetrics = new AlgorithmMetrics();
-            spMetrics.startTimer();
-            DAGShortestPath.shortestPathDAG(weight, topoOrder, source, spMetrics);
-            spMetrics.stopTimer();
-
-            System.out.printf("%-15s %-12d %-12d %-12d %-15.3f %-15.3f %-15.3f%n",
-                    file.getName(),
-                    n,
-                    edges.size(),
-                    sccs.size(),
-                    sccMetrics.getElapsedTimeNs() / 1_000_000.0,
-                    topoMetrics.getElapsedTimeNs() / 1_000_000.0,
-                    spMetrics.getElapsedTimeNs() / 1_000_000.0);
+            for (File file : files) {
+                inFlight.acquireUninterruptibly();
+                CompletableFuture<DatasetResult> result = CompletableFuture
+                        .supplyAsync(() -> loadDataset(file, options), io)
+                        .thenApplyAsync(loaded -> loaded.error != null || loaded.cached
+                                ? loaded : computeDataset(loaded, options), compute)
+                        .whenComplete((r, t) -> inFlight.release());
+                results.add(result);
+                while (printed < results.size() && results.get(printed).isDone()) {
+                    results.get(printed++).join().print();
+                }
+            }
+            while (printed < results.size()) {
+                results.get(printed++).join().print();
+            }
+        } finally {
+            io.shutdown();
+            compute.shutdown();
+        }
+
+        List<DatasetResult> done = new ArrayList<>(results.size());
+        for (CompletableFuture<DatasetResult> result : results) done.add(result.join());
+        return done;
+    }
 
+    // Load, build and reorder happen once per dataset; the other phases are means over the measured trials.
+    private static void printPhaseBreakdown(List<DatasetResult> results, Options options) {
+        PhaseRecorder.Phase[] phases = PhaseRecorder.Phase.values();
+        System.out.println("\nPhase breakdown (ms; scc..paths are per-trial means):");
+        StringBuilder header = new StringBuilder(String.format("%-15s", "Dataset"));
+        for (PhaseRecorder.Phase phase : phases) header.append(String.format(" %-10s", phase.label()));
+        System.out.println(header.append(String.format(" %-10s %-10s", "total", "largest")));
+        System.out.println("--------------------------------------------------------------------------------------------------------");
+        for (DatasetResult result : results) {
+            if (result.error != null) continue;
+            if (result.cached) {
+                System.out.printf("%-15s cached, nothing measured%n", result.name);
+                continue;
+            }
+            double[] ms = new double[phases.length];
+            double total = 0;
+            int largest = 0;
+            StringBuilder row = new StringBuilder(String.format("%-15s", result.name));
+            for (PhaseRecorder.Phase phase : phases) {
+                ms[phase.ordinal()] = result.phases.totalNs(phase) / 1e6 / (phase.perTrial() ? options.trials : 1);
+                total += ms[phase.ordinal()];
+                if (ms[phase.ordinal()] > ms[largest]) largest = phase.ordinal();
+                row.append(String.format(" %-10.3f", ms[phase.ordinal()]));
+            }
+            row.append(String.format(" %-10.3f %-10s", total, total == 0 ? "-"
+                    : String.format("%s %.0f%%", phases[largest].label(), 100 * ms[largest] / total)));
+            System.out.println(row);
+        }
+    }
+
+    private static void printTrialStatistics(List<DatasetResult> results) {
+        System.out.println("\nTrial statistics (ms; GC and allocation are per-trial means):");
+        System.out.printf("%-15s %-6s %-10s %-10s %-10s %-10s %-10s %-8s %-10s %-12s%n",
+                "Dataset", "Phase", "Min", "Median", "P95", "P99", "StdDev", "GCs", "GC(ms)", "Alloc(KB)");
+        System.out.println("-----------------------------------------------------------------------------------------------------------");
+        for (DatasetResult result : results) {
+            if (result.error != null || result.cached) continue;
+            printTrialRow(result.name, "scc", result.sccStats);
+            printTrialRow(result.name, "topo", result.topoStats);
+            printTrialRow(result.name, "sp", result.spStats);
+        }
+    }
+
+    private static void printTrialRow(String name, String phase, TrialStats stats) {
+        double allocated = stats.meanAllocatedBytes();
+        System.out.printf("%-15s %-6s %-10.3f %-10.3f %-10.3f %-10.3f %-10.3f %-8.2f %-10.2f %-12s%n",
+                name, phase,
+                stats.minMs(), stats.medianMs(), stats.percentileMs(95), stats.percentileMs(99),
+                stats.stdDevMs(), stats.meanGcCount(), stats.meanGcTimeMs(),
+                allocated < 0 ? "n/a" : String.format("%.1f", allocated / 1024.0));
+    }
+
+    private static ExecutorService newIoExecutor(Options options) {
+        if (options.virtualIo) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads need Java 21+; using " + options.ioThreads + " I/O thread(s)\n");
+            }
+        }
+        return Executors.newFixedThreadPool(options.ioThreads);
+    }
+
+    private static DatasetResult runSingleDataset(File file, Options options) {
+        DatasetResult result = loadDataset(file, options);
+        return result.error != null || result.cached ? result : computeDataset(result, options);
+    }
+
+    // With a cache, hashes the file first and skips loading entirely on a hit.
+    private static DatasetResult loadDataset(File file, Options options) {
+        DatasetResult result = new DatasetResult(file.getName());
+        try {
+            if (options.cache != null) {
+                long start = System.nanoTime();
+                result.cacheKey = options.cacheKey(file);
+                CachedResult hit = options.cache.get(result.cacheKey);
+                if (hit != null) {
+                    result.cached = true;
+                    result.vertices = hit.vertexCount();
+                    result.edges = hit.edgeCount();
+                    result.sccCount = hit.componentCount();
+                    result.cacheMs = (System.nanoTime() - start) / 1e6;
+                    return result;
+                }
+            }
+            result.phases = new PhaseRecorder(file.getName(), new AlgorithmMetrics());
+            result.loaded = GraphLoader.load(file.toPath(), result.phases);
         } catch (Exception e) {
-            System.out.println("Error processing " + file.getName() + ": " + e.getMessage());
+            result.error = e.getMessage();
+        }
+        return result;
+    }
+
+    // Runs the whole pipeline warmup + trials times; only the measured trials are recorded.
+    // With --reorder the algorithms run on the relabelled graph and the SCCs and
+    // distances are translated back, so rows and cache entries are in file ids.
+    private static DatasetResult computeDataset(DatasetResult result, Options options) {
+        try {
+            LoadedGraph loaded = result.loaded;
+            CSRGraph original = loaded.graph();
+            int source = loaded.source();
+            PhaseRecorder phases = result.phases;
+            CSRGraph graph = original;
+            VertexReordering reordering = null;
+            if (options.reorder != null && original.numVertices() > 0) {
+                phases.begin(PhaseRecorder.Phase.REORDER);
+                reordering = VertexReordering.compute(original, options.reorder);
+                graph = reordering.permute(original);
+                source = reordering.toPermuted(source);
+                phases.end(PhaseRecorder.Phase.REORDER, graph.numVertices(), graph.numEdges());
+            }
+
+            result.sccStats = new TrialStats();
+            result.topoStats = new TrialStats();
+            result.spStats = new TrialStats();
+            SCCResult scc = null;
+            CSRGraph dag = null;
+            int[] topoOrder = null;
+            double[] distances = null;
+            for (int run = 0; run < options.warmup + options.trials; run++) {
+                boolean measured = run >= options.warmup;
+                phases.setMeasured(measured);
+
+                AlgorithmMetrics sccMetrics = new AlgorithmMetrics();
+                if (measured) result.sccStats.begin();
+                sccMetrics.startTimer();
+                phases.begin(PhaseRecorder.Phase.SCC);
+                scc = options.engine.decompose(graph, sccMetrics);
+                phases.end(PhaseRecorder.Phase.SCC, graph.numVertices(), graph.numEdges());
+                sccMetrics.stopTimer();
+                if (measured) result.sccStats.end(sccMetrics);
+                result.sccMetrics = sccMetrics;
+
+                phases.begin(PhaseRecorder.Phase.CONDENSE);
+                dag = Kosaraju.buildCondensationGraph(graph, scc);
+                phases.end(PhaseRecorder.Phase.CONDENSE, graph.numVertices(), graph.numEdges());
+
+                AlgorithmMetrics topoMetrics = new AlgorithmMetrics();
+                if (measured) result.topoStats.begin();
+                topoMetrics.startTimer();
+                phases.begin(PhaseRecorder.Phase.TOPO);
+                TopoResult topo = TopoSort.topologicalSort(dag, topoMetrics);
+                phases.end(PhaseRecorder.Phase.TOPO, dag.numVertices(), dag.numEdges());
+                topoMetrics.stopTimer();
+                if (measured) result.topoStats.end(topoMetrics);
+                result.topoMetrics = topoMetrics;
+                if (!topo.isAcyclic())
+                    throw new IllegalStateException("condensation has a cycle through components "
+                            + Arrays.toString(topo.cycle()));
+                topoOrder = topo.order();
+
+                AlgorithmMetrics spMetrics = new AlgorithmMetrics();
+                if (measured) result.spStats.begin();
+                spMetrics.startTimer();
+                phases.begin(PhaseRecorder.Phase.PATHS);
+                distances = new CondensationPaths(graph, scc, topoOrder).shortestPaths(source, options.intraCost, spMetrics);
+                phases.end(PhaseRecorder.Phase.PATHS, graph.numVertices(), graph.numEdges());
+                spMetrics.stopTimer();
+                if (measured) result.spStats.end(spMetrics);
+                result.spMetrics = spMetrics;
+            }
+
+            result.vertices = graph.numVertices();
+            result.edges = graph.numEdges();
+            result.sccCount = scc.componentCount();
+            result.loadMBps = loaded.throughputMBps();
+            if (reordering != null) {
+                scc = reordering.toOriginal(scc);
+                distances = reordering.toOriginal(distances);
+                source = loaded.source();
+            }
+            if (result.cacheKey != null) {
+                options.cache.put(result.cacheKey, CachedResult.of(original, source, scc, dag, topoOrder, distances));
+            }
+        } catch (Exception e) {
+            result.error = e.getMessage();
+        } finally {
+            result.loaded = null;
+        }
+        return result;
+    }
+
+    static final class DatasetResult {
+        final String name;
+        LoadedGraph loaded;
+        String error;
+        int vertices;
+        int edges;
+        int sccCount;
+        TrialStats sccStats;
+        TrialStats topoStats;
+        TrialStats spStats;
+        AlgorithmMetrics sccMetrics;
+        AlgorithmMetrics topoMetrics;
+        AlgorithmMetrics spMetrics;
+        double loadMBps;
+        String cacheKey;
+        boolean cached;
+        double cacheMs;
+        PhaseRecorder phases;
+
+        DatasetResult(String name) {
+            this.name = name;
+        }
+
+        void addRecords(List<MetricsRecord> records, Options options) {
+            if (error != null || cached) return;
+            records.add(MetricsRecord.of(options.runId, name, "scc/" + options.engine.name().toLowerCase(Locale.ROOT),
+                    vertices, edges, sccCount, sccStats, sccMetrics));
+            records.add(MetricsRecord.of(options.runId, name, "topo/kahn",
+                    vertices, edges, sccCount, topoStats, topoMetrics));
+            records.add(MetricsRecord.of(options.runId, name,
+                    "sp/condensation-" + options.intraCost.name().toLowerCase(Locale.ROOT),
+                    vertices, edges, sccCount, spStats, spMetrics));
+        }
+
+        void print() {
+            if (error != null) {
+                System.out.println("Error processing " + name + ": " + error);
+                return;
+            }
+            if (cached) {
+                System.out.printf("%-15s %-12d %-12d %-12d cached, served in %.3f ms%n",
+                        name, vertices, edges, sccCount, cacheMs);
+                return;
+            }
+            System.out.printf("%-15s %-12d %-12d %-12d %-15.3f %-15.3f %-15.3f %-12.1f%n",
+                    name,
+                    vertices,
+                    edges,
+                    sccCount,
+                    sccStats.medianMs(),
+                    topoStats.medianMs(),
+                    spStats.medianMs(),
+                    loadMBps);
         }
     }
 }
@@ -1,69 +1,81 @@
 package graph;
 
-import com.google.gson.*;
+import graph.core.CSRGraph;
+import graph.io.GraphLoader;
+import graph.io.LoadedGraph;
 import graph.metrics.*;
 import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+import graph.topo.TopoResult;
 import graph.topo.TopoSort;
-import graph.dagsp.DAGShortestPath;
+import graph.dagsp.CondensationPaths;
 
 import java.io.*;
 import java.util.*;
 
 public class GraphTasks {
 
+    private static final String USAGE = "Usage: GraphTasks [--export FILE.jsonl|FILE.csv]... [--run-id ID]";
+
     public static void main(String[] args) throws IOException {
         System.out.println("========== Assignment 4 – Graph Tasks ==========\n");
 
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        Reader reader = new FileReader("src/main/resources/tasks.json");
-        JsonObject data = gson.fromJson(reader, JsonObject.class);
-        reader.close();
-
-        int n = data.get("n").getAsInt();
-        JsonArray edges = data.getAsJsonArray("edges");
-        int source = data.get("source").getAsInt();
-
-        List<List<Integer>> adj = new ArrayList<>();
-        double[][] weight = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            adj.add(new ArrayList<>());
-            Arrays.fill(weight[i], Double.POSITIVE_INFINITY);
+        String runId = MetricsExport.newRunId();
+        List<String> exports = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--export") && i + 1 < args.length) {
+                exports.add(args[++i]);
+            } else if (args[i].equals("--run-id") && i + 1 < args.length) {
+                runId = args[++i];
+            } else {
+                System.out.println("Unknown argument " + args[i] + "\n" + USAGE);
+                return;
+            }
         }
 
-        for (JsonElement e : edges) {
-            JsonObject obj = e.getAsJsonObject();
-            int u = obj.get("u").getAsInt();
-            int v = obj.get("v").getAsInt();
-            double w = obj.get("w").getAsDouble();
-            adj.get(u).add(v);
-            weight[u][v] = w;
-        }
+        LoadedGraph loaded = GraphLoader.load("src/main/resources/tasks.json");
+        CSRGraph graph = loaded.graph();
+        int source = loaded.source();
+        System.out.printf("Loaded %d vertices, %d edges (%.1f KB) in %.3f ms, %.1f MB/s%n%n",
+                graph.numVertices(), graph.numEdges(), loaded.bytes() / 1024.0,
+                loaded.loadTimeNs() / 1_000_000.0, loaded.throughputMBps());
 
         AlgorithmMetrics sccMetrics = new AlgorithmMetrics();
+        TrialStats sccStats = new TrialStats();
+        sccStats.begin();
         sccMetrics.startTimer();
-        List<List<Integer>> sccs = Kosaraju.findSCCs(adj, n, sccMetrics);
+        SCCResult scc = new Kosaraju().decompose(graph, sccMetrics);
         sccMetrics.stopTimer();
+        sccStats.end(sccMetrics);
 
         System.out.println("----- Kosaraju’s SCC Results -----");
         System.out.printf("Execution time: %.3f ms%n",
                 sccMetrics.getElapsedTimeNs() / 1_000_000.0);
         System.out.println("DFS_visits: " + sccMetrics.getCounter("DFS_visits"));
         System.out.println("DFS_edges: " + sccMetrics.getCounter("DFS_edges"));
-        System.out.println("Total SCCs: " + sccs.size());
+        System.out.println("Total SCCs: " + scc.componentCount());
+        List<List<Integer>> sccs = scc.components();
         for (int i = 0; i < sccs.size(); i++)
             System.out.println("SCC " + i + ": " + sccs.get(i));
         System.out.println();
 
-        List<Set<Integer>> dag = Kosaraju.buildCondensationGraph(adj, sccs);
+        CSRGraph dag = Kosaraju.buildCondensationGraph(graph, scc);
         System.out.println("Condensation Graph (DAG):");
-        for (int i = 0; i < dag.size(); i++)
-            System.out.println("Component " + i + " -> " + dag.get(i));
+        for (int c = 0; c < dag.numVertices(); c++) {
+            List<Integer> out = new ArrayList<>();
+            for (int e = dag.begin(c); e < dag.end(c); e++) out.add(dag.target(e));
+            System.out.println("Component " + c + " -> " + out);
+        }
         System.out.println();
 
         AlgorithmMetrics topoMetrics = new AlgorithmMetrics();
+        TrialStats topoStats = new TrialStats();
+        topoStats.begin();
         topoMetrics.startTimer();
-        List<Integer> topoOrder = TopoSort.kahnTopologicalSort(dag, topoMetrics);
+        TopoResult topo = TopoSort.topologicalSort(dag, topoMetrics);
+        List<Integer> topoOrder = topo.orderList();
         topoMetrics.stopTimer();
+        topoStats.end(topoMetrics);
 
         System.out.println("----- Kahn’s Topological Sort -----");
         System.out.printf("Execution time: %.3f ms%n",
@@ -71,12 +83,20 @@ public class GraphTasks {
         System.out.println("Pushes: " + topoMetrics.getCounter("pushes"));
         System.out.println("Pops: " + topoMetrics.getCounter("pops"));
         System.out.println("Topological order of components: " + topoOrder);
+        if (!topo.isAcyclic()) {
+            System.out.println("Warning: " + topo.stuckVertices().length + " components are on or behind a cycle: "
+                    + Arrays.toString(topo.cycle()));
+        }
         System.out.println();
 
         AlgorithmMetrics spMetrics = new AlgorithmMetrics();
+        TrialStats spStats = new TrialStats();
+        spStats.begin();
         spMetrics.startTimer();
-        double[] dist = DAGShortestPath.shortestPathDAG(weight, topoOrder, source, spMetrics);
+        double[] dist = new CondensationPaths(graph, scc, topoOrder)
+                .shortestPaths(source, CondensationPaths.IntraComponentCost.SHORTEST_PATH, spMetrics);
         spMetrics.stopTimer();
+        spStats.end(spMetrics);
 
         System.out.println("----- DAG Shortest Paths -----");
         System.out.printf("Execution time: %.3f ms%n",
@@ -104,5 +124,17 @@ public class GraphTasks {
                 spMetrics.getElapsedTimeNs() / 1_000_000.0,
                 "Relax=" + spMetrics.getCounter("relaxations"));
         System.out.println("===============================================");
+
+        if (!exports.isEmpty()) {
+            int n = graph.numVertices(), m = graph.numEdges(), c = scc.componentCount();
+            List<MetricsRecord> records = Arrays.asList(
+                    MetricsRecord.of(runId, "tasks.json", "scc/kosaraju", n, m, c, sccStats, sccMetrics),
+                    MetricsRecord.of(runId, "tasks.json", "topo/kahn", n, m, c, topoStats, topoMetrics),
+                    MetricsRecord.of(runId, "tasks.json", "sp/condensation-shortest_path", n, m, c, spStats, spMetrics));
+            for (String export : exports) {
+                MetricsExport.write(records, java.nio.file.Paths.get(export));
+                System.out.println("Exported run " + runId + " to " + export);
+            }
+        }
     }
 }
@@ -0,0 +1,163 @@
+package graph.cache;
+
+import graph.core.CSRGraph;
+import graph.scc.SCCResult;
+
+import java.io.*;
+import java.nio.*;
+import java.util.*;
+
+/**
+ * Everything the pipeline derives from one dataset: the SCC assignment, the
+ * condensation DAG, its topological order and the shortest distances from the
+ * source. Serialized little-endian as
+ *
+ *   int magic "GRES", int version, int n, int m, int source, int components,
+ *   int dagEdges, int orderLength, then int[n] componentOf,
+ *   int[components + 1] dagOffsets, int[dagEdges] dagTargets,
+ *   double[dagEdges] dagWeights, int[orderLength] order, double[n] distances.
+ */
+public final class CachedResult {
+
+    // Part of every cache key: bump it whenever the layout or any algorithm's output changes.
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x53455247;
+    private static final int HEADER_BYTES = 32;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int source;
+    private final int[] componentOf;
+    private final int[] dagOffsets;
+    private final int[] dagTargets;
+    private final double[] dagWeights;
+    private final int[] order;
+    private final double[] distances;
+
+    private CachedResult(int vertexCount, int edgeCount, int source, int[] componentOf, int[] dagOffsets,
+                         int[] dagTargets, double[] dagWeights, int[] order, double[] distances) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.source = source;
+        this.componentOf = componentOf;
+        this.dagOffsets = dagOffsets;
+        this.dagTargets = dagTargets;
+        this.dagWeights = dagWeights;
+        this.order = order;
+        this.distances = distances;
+    }
+
+    public static CachedResult of(CSRGraph graph, int source, SCCResult scc, CSRGraph dag,
+                                  int[] order, double[] distances) {
+        int c = dag.numVertices();
+        int[] offsets = new int[c + 1];
+        for (int u = 0; u < c; u++) offsets[u + 1] = dag.end(u);
+        int[] targets = new int[dag.numEdges()];
+        double[] weights = new double[dag.numEdges()];
+        for (int e = 0; e < targets.length; e++) {
+            targets[e] = dag.target(e);
+            weights[e] = dag.weight(e);
+        }
+        return new CachedResult(graph.numVertices(), graph.numEdges(), source,
+                scc.componentOfArray().clone(), offsets, targets, weights, order.clone(), distances.clone());
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public int componentCount() {
+        return dagOffsets.length - 1;
+    }
+
+    public int[] componentOf() {
+        return componentOf;
+    }
+
+    public CSRGraph condensation() {
+        return CSRGraph.fromArrays(componentCount(), dagOffsets, dagTargets, dagWeights);
+    }
+
+    public int[] topologicalOrder() {
+        return order;
+    }
+
+    public double[] distances() {
+        return distances;
+    }
+
+    public long sizeBytes() {
+        return HEADER_BYTES + 4L * (componentOf.length + dagOffsets.length + dagTargets.length + order.length)
+                + 8L * (dagWeights.length + distances.length);
+    }
+
+    public byte[] toBytes() {
+        long size = sizeBytes();
+        if (size > Integer.MAX_VALUE) throw new IllegalStateException("Result too large to cache: " + size);
+        ByteBuffer buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(edgeCount).putInt(source)
+                .putInt(componentCount()).putInt(dagTargets.length).putInt(order.length);
+        buf.asIntBuffer().put(componentOf).put(dagOffsets).put(dagTargets);
+        buf.position(buf.position() + 4 * (componentOf.length + dagOffsets.length + dagTargets.length));
+        buf.asDoubleBuffer().put(dagWeights);
+        buf.position(buf.position() + 8 * dagWeights.length);
+        buf.asIntBuffer().put(order);
+        buf.position(buf.position() + 4 * order.length);
+        buf.asDoubleBuffer().put(distances);
+        return buf.array();
+    }
+
+    public static CachedResult fromBytes(byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (bytes.length < HEADER_BYTES || buf.getInt() != MAGIC) throw new IOException("Not a cached result");
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("Unsupported cached result version " + version);
+        int n = buf.getInt();
+        int m = buf.getInt();
+        int source = buf.getInt();
+        int c = buf.getInt();
+        int dagEdges = buf.getInt();
+        int orderLength = buf.getInt();
+        long expected = HEADER_BYTES + 4L * (n + c + 1 + dagEdges + orderLength) + 8L * (dagEdges + n);
+        if (n < 0 || c < 0 || dagEdges < 0 || orderLength < 0 || bytes.length != expected)
+            throw new IOException("Corrupt cached result: " + bytes.length + " bytes, expected " + expected);
+
+        int[] componentOf = new int[n];
+        int[] offsets = new int[c + 1];
+        int[] targets = new int[dagEdges];
+        double[] weights = new double[dagEdges];
+        int[] order = new int[orderLength];
+        double[] distances = new double[n];
+        buf.asIntBuffer().get(componentOf).get(offsets).get(targets);
+        buf.position(buf.position() + 4 * (n + c + 1 + dagEdges));
+        buf.asDoubleBuffer().get(weights);
+        buf.position(buf.position() + 8 * dagEdges);
+        buf.asIntBuffer().get(order);
+        buf.position(buf.position() + 4 * orderLength);
+        buf.asDoubleBuffer().get(distances);
+        return new CachedResult(n, m, source, componentOf, offsets, targets, weights, order, distances);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CachedResult)) return false;
+        CachedResult r = (CachedResult) o;
+        return vertexCount == r.vertexCount && edgeCount == r.edgeCount && source == r.source
+                && Arrays.equals(componentOf, r.componentOf) && Arrays.equals(dagOffsets, r.dagOffsets)
+                && Arrays.equals(dagTargets, r.dagTargets) && Arrays.equals(dagWeights, r.dagWeights)
+                && Arrays.equals(order, r.order) && Arrays.equals(distances, r.distances);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vertexCount, edgeCount, source, Arrays.hashCode(componentOf), Arrays.hashCode(order));
+    }
+}
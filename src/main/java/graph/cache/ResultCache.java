@@ -0,0 +1,133 @@
+package graph.cache;
+
+import java.io.*;
+import java.nio.file.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * Content-addressed store of CachedResults. A key is the SHA-256 of the dataset
+ * bytes together with the SCC engine, the reordering strategy, any further
+ * settings and CachedResult.VERSION, so editing a file or changing the
+ * configuration both miss. Results live on disk
+ * as DIR/KEY.gres, and recently used ones are also kept in memory up to a byte
+ * budget (least recently used first out). Safe for concurrent use.
+ */
+public final class ResultCache {
+
+    private static final String EXTENSION = ".gres";
+
+    private final Path dir;
+    private final long memoryBudget;
+    private final LinkedHashMap<String, CachedResult> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    public ResultCache(Path dir, long memoryBudgetBytes) throws IOException {
+        this.dir = dir;
+        this.memoryBudget = memoryBudgetBytes;
+        Files.createDirectories(dir);
+    }
+
+    public static String key(Path dataset, String engine, String reorder, String settings) throws IOException {
+        MessageDigest sha = sha256();
+        try (InputStream in = Files.newInputStream(dataset)) {
+            byte[] buf = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buf)) > 0) sha.update(buf, 0, read);
+        }
+        byte[] content = sha.digest();
+        sha.update(content);
+        String configuration = "engine=" + engine + "|reorder=" + reorder + "|" + settings
+                + "|result-v" + CachedResult.VERSION;
+        sha.update(configuration.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha.digest()) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // The cached result, or null. Unreadable cache files count as misses.
+    public CachedResult get(String key) {
+        synchronized (this) {
+            CachedResult r = memory.get(key);
+            if (r != null) {
+                hits++;
+                return r;
+            }
+        }
+        Path file = dir.resolve(key + EXTENSION);
+        CachedResult r = null;
+        if (Files.exists(file)) {
+            try {
+                r = CachedResult.fromBytes(Files.readAllBytes(file));
+            } catch (IOException e) {
+                r = null;
+            }
+        }
+        synchronized (this) {
+            if (r == null) {
+                misses++;
+            } else {
+                hits++;
+                diskHits++;
+                remember(key, r);
+            }
+        }
+        return r;
+    }
+
+    public void put(String key, CachedResult result) throws IOException {
+        Path file = dir.resolve(key + EXTENSION);
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            Files.write(tmp, result.toBytes());
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        synchronized (this) {
+            remember(key, result);
+        }
+    }
+
+    private void remember(String key, CachedResult result) {
+        CachedResult old = memory.put(key, result);
+        if (old != null) memoryBytes -= old.sizeBytes();
+        memoryBytes += result.sizeBytes();
+        Iterator<Map.Entry<String, CachedResult>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryBudget && it.hasNext()) {
+            memoryBytes -= it.next().getValue().sizeBytes();
+            it.remove();
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long diskHits() {
+        return diskHits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized int memoryEntries() {
+        return memory.size();
+    }
+}
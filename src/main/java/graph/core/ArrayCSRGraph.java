@@ -0,0 +1,51 @@
+package graph.core;
+
+final class ArrayCSRGraph extends CSRGraph {
+
+    private final int n;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    ArrayCSRGraph(int n, int[] offsets, int[] targets, double[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int numVertices() {
+        return n;
+    }
+
+    @Override
+    public int numEdges() {
+        return offsets[n];
+    }
+
+    @Override
+    public int begin(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public int end(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    @Override
+    public int target(int e) {
+        return targets[e];
+    }
+
+    @Override
+    public double weight(int e) {
+        return weights[e];
+    }
+}
@@ -0,0 +1,210 @@
+package graph.core;
+
+import java.util.*;
+
+/**
+ * Directed weighted graph in compressed sparse row form.
+ * Out-edges of vertex u occupy the edge ids [begin(u), end(u)); target(e) and
+ * weight(e) give the head and weight of edge e. The reverse graph is built on
+ * first use and cached.
+ *
+ * Graphs built in memory keep offsets, targets and weights in primitive arrays;
+ * subclasses may serve the same layout from other storage such as a
+ * memory-mapped file.
+ */
+public abstract class CSRGraph {
+
+    private volatile CSRGraph reverse;
+
+    protected CSRGraph() {
+    }
+
+    public static CSRGraph fromArrays(int n, int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length != n + 1)
+            throw new IllegalArgumentException("offsets must have n + 1 entries");
+        int m = offsets[n];
+        if (targets.length < m || weights.length < m)
+            throw new IllegalArgumentException("targets/weights shorter than offsets[n] = " + m);
+        if (offsets[0] != 0)
+            throw new IllegalArgumentException("offsets[0] must be 0, not " + offsets[0]);
+        for (int u = 0; u < n; u++) {
+            if (offsets[u + 1] < offsets[u])
+                throw new IllegalArgumentException("offsets decrease at vertex " + u);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++)
+                if (targets[e] < 0 || targets[e] >= n)
+                    throw new IllegalArgumentException("Edge " + u + " -> " + targets[e]
+                            + " out of range for n = " + n);
+        }
+        return new ArrayCSRGraph(n, offsets, targets, weights);
+    }
+
+    public static CSRGraph fromAdjacency(List<List<Integer>> adj, int n) {
+        Builder b = new Builder(n);
+        for (int u = 0; u < n; u++)
+            for (int v : adj.get(u))
+                b.addEdge(u, v);
+        return b.build();
+    }
+
+    public static CSRGraph fromSets(List<? extends Collection<Integer>> dag) {
+        Builder b = new Builder(dag.size());
+        for (int u = 0; u < dag.size(); u++)
+            for (int v : dag.get(u))
+                b.addEdge(u, v);
+        return b.build();
+    }
+
+    public static CSRGraph fromWeightMatrix(double[][] weight) {
+        int n = weight.length;
+        Builder b = new Builder(n);
+        for (int u = 0; u < n; u++)
+            for (int v = 0; v < n; v++)
+                if (weight[u][v] != Double.POSITIVE_INFINITY)
+                    b.addEdge(u, v, weight[u][v]);
+        return b.build();
+    }
+
+    public abstract int numVertices();
+
+    public abstract int numEdges();
+
+    public abstract int begin(int u);
+
+    public abstract int end(int u);
+
+    public abstract int target(int e);
+
+    public abstract double weight(int e);
+
+    public int outDegree(int u) {
+        return end(u) - begin(u);
+    }
+
+    public CSRGraph reverse() {
+        CSRGraph r = reverse;
+        if (r == null) {
+            synchronized (this) {
+                r = reverse;
+                if (r == null) {
+                    r = buildReverse();
+                    r.reverse = this;
+                    reverse = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    // The reverse always lives on the heap, whatever the storage of this graph.
+    private CSRGraph buildReverse() {
+        int n = numVertices();
+        int m = numEdges();
+        int[] revOffsets = new int[n + 1];
+        for (int e = 0; e < m; e++) revOffsets[target(e) + 1]++;
+        for (int i = 0; i < n; i++) revOffsets[i + 1] += revOffsets[i];
+
+        int[] cursor = Arrays.copyOf(revOffsets, n);
+        int[] revTargets = new int[m];
+        double[] revWeights = new double[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = begin(u); e < end(u); e++) {
+                int slot = cursor[target(e)]++;
+                revTargets[slot] = u;
+                revWeights[slot] = weight(e);
+            }
+        }
+        return new ArrayCSRGraph(n, revOffsets, revTargets, revWeights);
+    }
+
+    public List<List<Integer>> toAdjacency() {
+        int n = numVertices();
+        List<List<Integer>> adj = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<Integer> out = new ArrayList<>(outDegree(u));
+            for (int e = begin(u); e < end(u); e++) out.add(target(e));
+            adj.add(out);
+        }
+        return adj;
+    }
+
+    /**
+     * Accumulates an edge list in primitive arrays and turns it into CSR with a
+     * stable counting sort, so out-edges keep their insertion order. If no vertex
+     * count is given, it is taken as the largest endpoint plus one.
+     */
+    public static final class Builder {
+        private int n;
+        private int m;
+        private int[] src;
+        private int[] dst;
+        private double[] w;
+
+        public Builder() {
+            this(-1);
+        }
+
+        public Builder(int n) {
+            this.n = n;
+            this.src = new int[16];
+            this.dst = new int[16];
+            this.w = new double[16];
+        }
+
+        public Builder setVertexCount(int n) {
+            this.n = n;
+            return this;
+        }
+
+        public Builder addEdge(int u, int v) {
+            return addEdge(u, v, 1.0);
+        }
+
+        public Builder addEdge(int u, int v, double weight) {
+            if (u < 0 || v < 0)
+                throw new IllegalArgumentException("Negative vertex id in edge " + u + " -> " + v);
+            if (m == src.length) {
+                int cap = src.length * 2;
+                src = Arrays.copyOf(src, cap);
+                dst = Arrays.copyOf(dst, cap);
+                w = Arrays.copyOf(w, cap);
+            }
+            src[m] = u;
+            dst[m] = v;
+            w[m] = weight;
+            m++;
+            return this;
+        }
+
+        public int edgeCount() {
+            return m;
+        }
+
+        public CSRGraph build() {
+            int vertices = n;
+            if (vertices < 0) {
+                vertices = 0;
+                for (int i = 0; i < m; i++)
+                    vertices = Math.max(vertices, Math.max(src[i], dst[i]) + 1);
+            }
+
+            int[] offsets = new int[vertices + 1];
+            for (int i = 0; i < m; i++) {
+                if (src[i] >= vertices || dst[i] >= vertices)
+                    throw new IllegalArgumentException("Edge " + src[i] + " -> " + dst[i]
+                            + " out of range for n = " + vertices);
+                offsets[src[i] + 1]++;
+            }
+            for (int i = 0; i < vertices; i++) offsets[i + 1] += offsets[i];
+
+            int[] cursor = Arrays.copyOf(offsets, vertices);
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            for (int i = 0; i < m; i++) {
+                int slot = cursor[src[i]]++;
+                targets[slot] = dst[i];
+                weights[slot] = w[i];
+            }
+            return new ArrayCSRGraph(vertices, offsets, targets, weights);
+        }
+    }
+}
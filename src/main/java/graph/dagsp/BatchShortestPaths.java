@@ -0,0 +1,149 @@
+package graph.dagsp;
+
+import graph.core.CSRGraph;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Answers many shortest-path queries against one DAG. The CSR graph and its
+ * topological order are shared by every query; a query from s only scans the
+ * order from s's position onwards, since nothing earlier is reachable.
+ * Independent sources run in parallel on a ForkJoinPool created with the object
+ * and shut down by close(), one task per worker index, each taking every
+ * parallelism-th query. When only selected targets
+ * are returned, worker w reuses buffer w, which is allocated on first use and kept
+ * for the object's lifetime; such batches therefore run one at a time.
+ */
+public class BatchShortestPaths implements AutoCloseable {
+
+    private final CSRGraph g;
+    private final int[] topoOrder;
+    private final int[] position;
+    private final int parallelism;
+    private final double[][] buffers;
+    private final ForkJoinPool pool;
+
+    private interface QueryBody {
+        void run(int query, int worker);
+    }
+
+    public BatchShortestPaths(CSRGraph g, int[] topoOrder, int parallelism) {
+        int n = g.numVertices();
+        if (topoOrder.length != n)
+            throw new IllegalArgumentException("Topological order covers " + topoOrder.length
+                    + " of " + n + " vertices; the graph must be acyclic");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.g = g;
+        this.topoOrder = topoOrder;
+        this.position = new int[n];
+        for (int i = 0; i < n; i++) position[topoOrder[i]] = i;
+        this.parallelism = parallelism;
+        this.buffers = new double[parallelism][];
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    public BatchShortestPaths(CSRGraph g, List<Integer> topoOrder, int parallelism) {
+        this(g, topoOrder.stream().mapToInt(Integer::intValue).toArray(), parallelism);
+    }
+
+    public double[] multiSource(int[] sources) {
+        double[] dist = new double[g.numVertices()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        int from = topoOrder.length;
+        for (int s : sources) {
+            dist[s] = 0;
+            from = Math.min(from, position[s]);
+        }
+        relax(dist, 0, from);
+        return dist;
+    }
+
+    public DistanceTable query(int[] sources) {
+        int n = g.numVertices();
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) all[v] = v;
+        double[] values = new double[tableSize(sources.length, n)];
+        run(sources.length, (q, worker) -> {
+            int base = q * n;
+            Arrays.fill(values, base, base + n, Double.POSITIVE_INFINITY);
+            values[base + sources[q]] = 0;
+            relax(values, base, position[sources[q]]);
+        });
+        return new DistanceTable(sources.clone(), all, values);
+    }
+
+    public synchronized DistanceTable query(int[] sources, int[] targets) {
+        int n = g.numVertices();
+        int t = targets.length;
+        double[] values = new double[tableSize(sources.length, t)];
+        run(sources.length, (q, worker) -> {
+            if (buffers[worker] == null) buffers[worker] = new double[n];
+            double[] dist = buffers[worker];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            dist[sources[q]] = 0;
+            relax(dist, 0, position[sources[q]]);
+            for (int i = 0; i < t; i++) values[q * t + i] = dist[targets[i]];
+        });
+        return new DistanceTable(sources.clone(), targets.clone(), values);
+    }
+
+    private static int tableSize(int queries, int columns) {
+        long cells = (long) queries * columns;
+        if (cells > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException(queries + " x " + columns
+                    + " distances exceed a single table; split the batch or select targets");
+        return (int) cells;
+    }
+
+    // dist[base + v] holds the distance of v; relaxes every vertex from topoOrder[from] on.
+    private void relax(double[] dist, int base, int from) {
+        for (int i = from; i < topoOrder.length; i++) {
+            int u = topoOrder[i];
+            double du = dist[base + u];
+            if (du == Double.POSITIVE_INFINITY) continue;
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                int v = base + g.target(e);
+                double candidate = du + g.weight(e);
+                if (candidate < dist[v]) dist[v] = candidate;
+            }
+        }
+    }
+
+    private void run(int queries, QueryBody body) {
+        int workers = Math.min(parallelism, queries);
+        if (workers <= 1) {
+            for (int q = 0; q < queries; q++) body.run(q, 0);
+            return;
+        }
+        List<Worker> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) tasks.add(new Worker(body, w, workers, queries));
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    // Shuts the worker pool down; queries after close() fail unless they run on one worker.
+    @Override
+    public void close() {
+        if (pool != null) pool.shutdown();
+    }
+
+    private static final class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final QueryBody body;
+        private final int worker, stride, queries;
+
+        Worker(QueryBody body, int worker, int stride, int queries) {
+            this.body = body;
+            this.worker = worker;
+            this.stride = stride;
+            this.queries = queries;
+        }
+
+        @Override
+        protected void compute() {
+            for (int q = worker; q < queries; q += stride) body.run(q, worker);
+        }
+    }
+}
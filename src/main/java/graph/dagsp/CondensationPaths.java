@@ -0,0 +1,198 @@
+package graph.dagsp;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+import graph.scc.SCCResult;
+
+import java.util.*;
+
+/**
+ * Single-source path lengths on an arbitrary (possibly cyclic) graph, computed by
+ * walking its SCC condensation in topological order and reporting one distance
+ * per original vertex.
+ *
+ * Moving inside a component is either free (ZERO: the component acts as a single
+ * node, O(V + E)) or costs the real shortest path through its internal edges
+ * (SHORTEST_PATH: Dijkstra restricted to each non-trivial component, exact for
+ * non-negative weights). Longest paths only support ZERO, since a cycle with
+ * positive weight has no finite longest path.
+ */
+public class CondensationPaths {
+
+    public enum IntraComponentCost { ZERO, SHORTEST_PATH }
+
+    public static IntraComponentCost costForName(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "zero":
+                return IntraComponentCost.ZERO;
+            case "shortest":
+                return IntraComponentCost.SHORTEST_PATH;
+            default:
+                throw new IllegalArgumentException("Unknown intra-component cost: " + name
+                        + " (expected zero or shortest)");
+        }
+    }
+
+    private final CSRGraph g;
+    private final SCCResult scc;
+    private final int[] componentOrder;
+
+    public CondensationPaths(CSRGraph g, SCCResult scc, int[] componentOrder) {
+        if (componentOrder.length != scc.componentCount())
+            throw new IllegalArgumentException("Component order covers " + componentOrder.length
+                    + " of " + scc.componentCount() + " components; the condensation must be acyclic");
+        this.g = g;
+        this.scc = scc;
+        this.componentOrder = componentOrder;
+    }
+
+    public CondensationPaths(CSRGraph g, SCCResult scc, List<Integer> componentOrder) {
+        this(g, scc, componentOrder.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public double[] shortestPaths(int source, IntraComponentCost cost, Metrics metrics) {
+        if (cost == IntraComponentCost.ZERO)
+            return contracted(source, Double.POSITIVE_INFINITY, metrics);
+
+        int n = g.numVertices();
+        int[] compOf = scc.componentOfArray();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        MinHeap heap = new MinHeap();
+        long relaxations = 0;
+
+        for (int c : componentOrder) {
+            int start = scc.memberStart(c), end = scc.memberEnd(c);
+            if (end - start > 1) {
+                for (int i = start; i < end; i++) {
+                    int u = scc.member(i);
+                    if (dist[u] != Double.POSITIVE_INFINITY) heap.push(dist[u], u);
+                }
+                while (!heap.isEmpty()) {
+                    double d = heap.peekKey();
+                    int u = heap.pop();
+                    if (d > dist[u]) continue;
+                    for (int e = g.begin(u); e < g.end(u); e++) {
+                        int v = g.target(e);
+                        if (compOf[v] != c) continue;
+                        if (g.weight(e) < 0)
+                            throw new IllegalArgumentException("Negative weight inside SCC on edge "
+                                    + u + " -> " + v);
+                        double candidate = d + g.weight(e);
+                        if (candidate < dist[v]) {
+                            dist[v] = candidate;
+                            heap.push(candidate, v);
+                            relaxations++;
+                        }
+                    }
+                }
+            }
+            for (int i = start; i < end; i++) {
+                int u = scc.member(i);
+                if (dist[u] == Double.POSITIVE_INFINITY) continue;
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int v = g.target(e);
+                    if (compOf[v] == c) continue;
+                    double candidate = dist[u] + g.weight(e);
+                    if (candidate < dist[v]) {
+                        dist[v] = candidate;
+                        relaxations++;
+                    }
+                }
+            }
+        }
+        metrics.add(metrics.counterHandle("relaxations"), relaxations);
+        return dist;
+    }
+
+    public double[] longestPaths(int source, IntraComponentCost cost, Metrics metrics) {
+        if (cost != IntraComponentCost.ZERO)
+            throw new IllegalArgumentException("Longest paths are only defined with ZERO intra-component cost");
+        return contracted(source, Double.NEGATIVE_INFINITY, metrics);
+    }
+
+    // Relaxes component-level distances in order; unreached is +inf for shortest and -inf for longest.
+    private double[] contracted(int source, double unreached, Metrics metrics) {
+        boolean shortest = unreached == Double.POSITIVE_INFINITY;
+        int[] compOf = scc.componentOfArray();
+        double[] compDist = new double[scc.componentCount()];
+        Arrays.fill(compDist, unreached);
+        compDist[compOf[source]] = 0;
+        long relaxations = 0;
+
+        for (int c : componentOrder) {
+            double dc = compDist[c];
+            if (dc == unreached) continue;
+            for (int i = scc.memberStart(c); i < scc.memberEnd(c); i++) {
+                int u = scc.member(i);
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int cv = compOf[g.target(e)];
+                    if (cv == c) continue;
+                    double candidate = dc + g.weight(e);
+                    if (shortest ? candidate < compDist[cv] : candidate > compDist[cv]) {
+                        compDist[cv] = candidate;
+                        relaxations++;
+                    }
+                }
+            }
+        }
+
+        metrics.add(metrics.counterHandle("relaxations"), relaxations);
+
+        double[] dist = new double[g.numVertices()];
+        for (int v = 0; v < dist.length; v++) dist[v] = compDist[compOf[v]];
+        return dist;
+    }
+
+    // Binary heap of (distance, vertex) pairs with lazy deletion of stale entries.
+    private static final class MinHeap {
+        private double[] keys = new double[16];
+        private int[] values = new int[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(double key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            double key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= key) break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return top;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package graph.dagsp;
 
-import com.google.gson.*;
+import graph.core.CSRGraph;
+import graph.io.GraphLoader;
+import graph.io.LoadedGraph;
 import graph.metrics.*;
 import java.io.*;
 import java.util.*;
@@ -8,33 +10,17 @@ import java.util.*;
 public class DAGShortestPath {
 
     public static void main(String[] args) throws IOException {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        Reader reader = new FileReader("src/main/resources/tasks.json");
-        JsonObject data = gson.fromJson(reader, JsonObject.class);
-        reader.close();
-
-        int n = data.get("n").getAsInt();
-        int source = data.get("source").getAsInt();
-        JsonArray edges = data.getAsJsonArray("edges");
-
-        double[][] weight = new double[n][n];
-        for (int i = 0; i < n; i++)
-            Arrays.fill(weight[i], Double.POSITIVE_INFINITY);
-
-        for (JsonElement e : edges) {
-            JsonObject obj = e.getAsJsonObject();
-            int u = obj.get("u").getAsInt();
-            int v = obj.get("v").getAsInt();
-            double w = obj.get("w").getAsDouble();
-            weight[u][v] = w;
-        }
+        LoadedGraph loaded = GraphLoader.load("src/main/resources/tasks.json");
+        CSRGraph graph = loaded.graph();
+        int n = graph.numVertices();
+        int source = loaded.source();
 
         List<Integer> topoOrder = new ArrayList<>();
         for (int i = 0; i < n; i++) topoOrder.add(i);
 
         AlgorithmMetrics metrics = new AlgorithmMetrics();
         metrics.startTimer();
-        double[] dist = shortestPathDAG(weight, topoOrder, source, metrics);
+        double[] dist = shortestPathDAG(graph, topoOrder, source, metrics);
         metrics.stopTimer();
 
         System.out.println("========= DAG Shortest Paths =========");
@@ -51,23 +37,75 @@ public class DAGShortestPath {
 
     public static double[] shortestPathDAG(double[][] weight, List<Integer> topoOrder,
                                            int source, Metrics metrics) {
-        int n = weight.length;
-        double[] dist = new double[n];
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        return shortestPathDAG(CSRGraph.fromWeightMatrix(weight), topoOrder, source, metrics);
+    }
+
+    public static double[] shortestPathDAG(CSRGraph g, List<Integer> topoOrder,
+                                           int source, Metrics metrics) {
+        int[] order = new int[topoOrder.size()];
+        for (int i = 0; i < order.length; i++) order[i] = topoOrder.get(i);
+        return shortestPathDAG(g, order, source, metrics);
+    }
+
+    public static double[] shortestPathDAG(CSRGraph g, int[] topoOrder, int source, Metrics metrics) {
+        double[] dist = initialDistances(g.numVertices(), Double.POSITIVE_INFINITY);
         dist[source] = 0;
+        relax(g, topoOrder, dist, null, false, metrics);
+        return dist;
+    }
 
+    public static PathTree shortestPathTree(CSRGraph g, int[] topoOrder, int source, Metrics metrics) {
+        double[] dist = initialDistances(g.numVertices(), Double.POSITIVE_INFINITY);
+        int[] pred = new int[g.numVertices()];
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+        relax(g, topoOrder, dist, pred, false, metrics);
+        return new PathTree(dist, pred, Double.POSITIVE_INFINITY);
+    }
+
+    public static PathTree longestPathTree(CSRGraph g, int[] topoOrder, int source, Metrics metrics) {
+        double[] dist = initialDistances(g.numVertices(), Double.NEGATIVE_INFINITY);
+        int[] pred = new int[g.numVertices()];
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+        relax(g, topoOrder, dist, pred, true, metrics);
+        return new PathTree(dist, pred, Double.NEGATIVE_INFINITY);
+    }
+
+    // Longest path starting anywhere: every vertex may begin a chain at 0, so
+    // tree.path(tree.farthest()) is the critical path of the whole DAG.
+    public static PathTree criticalPath(CSRGraph g, int[] topoOrder, Metrics metrics) {
+        double[] dist = initialDistances(g.numVertices(), 0);
+        int[] pred = new int[g.numVertices()];
+        Arrays.fill(pred, -1);
+        relax(g, topoOrder, dist, pred, true, metrics);
+        return new PathTree(dist, pred, Double.NEGATIVE_INFINITY);
+    }
+
+    private static double[] initialDistances(int n, double value) {
+        double[] dist = new double[n];
+        Arrays.fill(dist, value);
+        return dist;
+    }
+
+    // One pass over the order; improves dist (min, or max when longest) and records pred if non-null.
+    private static void relax(CSRGraph g, int[] topoOrder, double[] dist, int[] pred,
+                              boolean longest, Metrics metrics) {
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        long relaxations = 0;
         for (int u : topoOrder) {
-            if (dist[u] != Double.POSITIVE_INFINITY) {
-                for (int v = 0; v < n; v++) {
-                    if (weight[u][v] != Double.POSITIVE_INFINITY) {
-                        if (dist[v] > dist[u] + weight[u][v]) {
-                            dist[v] = dist[u] + weight[u][v];
-                            metrics.incrementCounter("relaxations");
-                        }
-                    }
+            double du = dist[u];
+            if (du == unreached) continue;
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                int v = g.target(e);
+                double candidate = du + g.weight(e);
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    if (pred != null) pred[v] = u;
+                    relaxations++;
                 }
             }
         }
-        return dist;
+        metrics.add(metrics.counterHandle("relaxations"), relaxations);
     }
 }
@@ -0,0 +1,50 @@
+package graph.dagsp;
+
+import java.util.*;
+
+/**
+ * Results of a batch of shortest-path queries: one column per query, each
+ * holding the distances to the requested targets, stored back to back in a
+ * single double[] (query q, target t at q * targetCount + t).
+ */
+public final class DistanceTable {
+
+    private final int[] sources;
+    private final int[] targets;
+    private final double[] values;
+
+    DistanceTable(int[] sources, int[] targets, double[] values) {
+        this.sources = sources;
+        this.targets = targets;
+        this.values = values;
+    }
+
+    public int queryCount() {
+        return sources.length;
+    }
+
+    public int targetCount() {
+        return targets.length;
+    }
+
+    public int source(int query) {
+        return sources[query];
+    }
+
+    public int target(int column) {
+        return targets[column];
+    }
+
+    public double get(int query, int column) {
+        return values[query * targets.length + column];
+    }
+
+    public double[] column(int query) {
+        int base = query * targets.length;
+        return Arrays.copyOfRange(values, base, base + targets.length);
+    }
+
+    public double[] values() {
+        return values;
+    }
+}
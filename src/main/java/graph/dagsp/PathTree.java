@@ -0,0 +1,60 @@
+package graph.dagsp;
+
+import java.util.*;
+
+/**
+ * Distances plus a predecessor array (-1 for roots and unreached vertices) from
+ * one relaxation pass. Paths are rebuilt on demand by following predecessors.
+ */
+public final class PathTree {
+
+    private final double[] dist;
+    private final int[] pred;
+    private final double unreached;
+
+    PathTree(double[] dist, int[] pred, double unreached) {
+        this.dist = dist;
+        this.pred = pred;
+        this.unreached = unreached;
+    }
+
+    public double[] distances() {
+        return dist;
+    }
+
+    public double distance(int v) {
+        return dist[v];
+    }
+
+    public int predecessor(int v) {
+        return pred[v];
+    }
+
+    public boolean isReachable(int v) {
+        return dist[v] != unreached;
+    }
+
+    // Vertex with the largest finite distance, or -1 if nothing is reachable.
+    public int farthest() {
+        int best = -1;
+        for (int v = 0; v < dist.length; v++)
+            if (dist[v] != unreached && (best == -1 || dist[v] > dist[best])) best = v;
+        return best;
+    }
+
+    // Vertices from the root of v's tree to v, or an empty array if v is unreachable.
+    public int[] path(int v) {
+        if (!isReachable(v)) return new int[0];
+        int length = 1;
+        for (int u = pred[v]; u != -1; u = pred[u]) length++;
+        int[] path = new int[length];
+        for (int u = v, i = length - 1; u != -1; u = pred[u], i--) path[i] = u;
+        return path;
+    }
+
+    public List<Integer> pathList(int v) {
+        List<Integer> list = new ArrayList<>();
+        for (int u : path(v)) list.add(u);
+        return list;
+    }
+}
@@ -0,0 +1,230 @@
+package graph.gen;
+
+import graph.core.CSRGraph;
+import graph.io.BinaryGraphFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Seeded synthetic graphs in the shapes of the bundled datasets, at any size.
+ * The out-edges of vertex u are drawn from a random stream seeded by (seed, u)
+ * alone, so edges can be regenerated vertex by vertex in any number of passes.
+ * The writers stream edges straight to disk and never hold the edge list.
+ * Weights are integers in [1, 9]; the source is vertex 0.
+ *
+ * Families:
+ *   CHAIN        u -> u + 1 (large1)
+ *   DENSE_DAG    `degree` forward edges per vertex into the next 1024 ids (medium2, large3)
+ *   PLANTED_SCC  directed rings of `clusterSize` vertices, each vertex with degree - 1
+ *                forward edges into the next 64 clusters; the SCCs are exactly the rings
+ *                (small3, medium3)
+ *   POWER_LAW    Pareto-distributed out-degrees with mean about `degree`, and targets
+ *                skewed towards low ids, giving a giant SCC plus DAG fringes (large2)
+ *
+ * Usage: GraphGenerator FAMILY N OUT.json|OUT.csrg [--degree D] [--cluster S] [--seed X]
+ */
+public final class GraphGenerator {
+
+    public enum Family { CHAIN, DENSE_DAG, PLANTED_SCC, POWER_LAW }
+
+    private static final int WINDOW = 1024;
+    private static final int CLUSTER_REACH = 64;
+    private static final double PARETO_ALPHA = 2.5;
+
+    public interface EdgeConsumer {
+        void edge(int u, int v, int weight) throws IOException;
+    }
+
+    private final Family family;
+    private final int n;
+    private final int degree;
+    private final int clusterSize;
+    private final long seed;
+
+    public GraphGenerator(Family family, int n, int degree, long seed) {
+        this(family, n, degree, 8, seed);
+    }
+
+    public GraphGenerator(Family family, int n, int degree, int clusterSize, long seed) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive: " + n);
+        if (degree < 1) throw new IllegalArgumentException("degree must be positive: " + degree);
+        if (clusterSize < 2) throw new IllegalArgumentException("clusterSize must be at least 2: " + clusterSize);
+        this.family = family;
+        this.n = n;
+        this.degree = degree;
+        this.clusterSize = clusterSize;
+        this.seed = seed;
+    }
+
+    public int vertexCount() {
+        return n;
+    }
+
+    public Family family() {
+        return family;
+    }
+
+    // Number of out-edges of u; the first draw from u's stream where the family needs one.
+    public int outDegree(int u) {
+        return outDegree(u, random(u));
+    }
+
+    public long edgeCount() {
+        long m = 0;
+        for (int u = 0; u < n; u++) m += outDegree(u);
+        return m;
+    }
+
+    public void forEachEdge(EdgeConsumer consumer) throws IOException {
+        for (int u = 0; u < n; u++) {
+            SplittableRandom rnd = random(u);
+            int d = outDegree(u, rnd);
+            for (int k = 0; k < d; k++) consumer.edge(u, target(u, k, rnd), 1 + rnd.nextInt(9));
+        }
+    }
+
+    public CSRGraph build() {
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        try {
+            forEachEdge((u, v, w) -> b.addEdge(u, v, w));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return b.build();
+    }
+
+    // The writers return the number of edges written.
+    public long writeJson(Path out) throws IOException {
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(out),
+                StandardCharsets.UTF_8), 1 << 20)) {
+            w.write("{\n  \"directed\": true,\n  \"n\": " + n + ",\n  \"edges\": [");
+            long[] written = {0};
+            forEachEdge((u, v, weight) -> {
+                w.write(written[0]++ == 0 ? "\n    " : ",\n    ");
+                w.write("{\"u\": ");
+                w.write(Integer.toString(u));
+                w.write(", \"v\": ");
+                w.write(Integer.toString(v));
+                w.write(", \"w\": ");
+                w.write(Integer.toString(weight));
+                w.write('}');
+            });
+            w.write("\n  ],\n  \"source\": 0,\n  \"weight_model\": \"edge\"\n}\n");
+            return written[0];
+        }
+    }
+
+    // Two passes over the seeded streams: out-degrees, then edges.
+    public long writeBinary(Path out) throws IOException {
+        long m = 0;
+        try (BinaryGraphFormat.Writer w = new BinaryGraphFormat.Writer(out, n, 0)) {
+            for (int u = 0; u < n; u++) {
+                int d = outDegree(u);
+                w.degree(d);
+                m += d;
+            }
+            forEachEdge((u, v, weight) -> w.edge(v, weight));
+        }
+        return m;
+    }
+
+    public long write(Path out) throws IOException {
+        return out.toString().endsWith(BinaryGraphFormat.EXTENSION) ? writeBinary(out) : writeJson(out);
+    }
+
+    private SplittableRandom random(int u) {
+        return new SplittableRandom(mix(seed * 0x9E3779B97F4A7C15L + u));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int outDegree(int u, SplittableRandom rnd) {
+        switch (family) {
+            case CHAIN:
+                return u + 1 < n ? 1 : 0;
+            case DENSE_DAG:
+                return u + 1 < n ? degree : 0;
+            case PLANTED_SCC: {
+                int first = u / clusterSize * clusterSize;
+                int last = Math.min(n, first + clusterSize) - 1;
+                boolean ring = last > first;
+                boolean later = last + 1 < n;
+                return (ring ? 1 : 0) + (later ? degree - 1 : 0);
+            }
+            case POWER_LAW: {
+                double scale = degree * (PARETO_ALPHA - 1) / PARETO_ALPHA;
+                double d = scale * Math.pow(1.0 - rnd.nextDouble(), -1.0 / PARETO_ALPHA);
+                return (int) Math.min(Math.min(n - 1, 1 << 16), Math.round(d));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown family " + family);
+        }
+    }
+
+    private int target(int u, int k, SplittableRandom rnd) {
+        switch (family) {
+            case CHAIN:
+                return u + 1;
+            case DENSE_DAG:
+                return u + 1 + rnd.nextInt(Math.min(n - u - 1, WINDOW));
+            case PLANTED_SCC: {
+                int cluster = u / clusterSize;
+                int first = cluster * clusterSize;
+                int last = Math.min(n, first + clusterSize) - 1;
+                if (k == 0 && last > first) return u < last ? u + 1 : first;
+                int clusters = (n + clusterSize - 1) / clusterSize;
+                int next = cluster + 1 + rnd.nextInt(Math.min(clusters - cluster - 1, CLUSTER_REACH));
+                int start = next * clusterSize;
+                return start + rnd.nextInt(Math.min(n, start + clusterSize) - start);
+            }
+            case POWER_LAW: {
+                int v = (int) (n * Math.pow(rnd.nextDouble(), 2.0));
+                return v == u ? (v + 1) % n : v;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown family " + family);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String usage = "Usage: GraphGenerator CHAIN|DENSE_DAG|PLANTED_SCC|POWER_LAW N OUT.json|OUT"
+                + BinaryGraphFormat.EXTENSION + " [--degree D] [--cluster S] [--seed X]";
+        if (args.length < 3) {
+            System.out.println(usage);
+            return;
+        }
+        Family family;
+        try {
+            family = Family.valueOf(args[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown family " + args[0] + "\n" + usage);
+            return;
+        }
+        int n = Integer.parseInt(args[1]);
+        Path out = Paths.get(args[2]);
+        int degree = 4;
+        int cluster = 8;
+        long seed = 42;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--degree") && i + 1 < args.length) degree = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--cluster") && i + 1 < args.length) cluster = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--seed") && i + 1 < args.length) seed = Long.parseLong(args[++i]);
+        }
+
+        long start = System.nanoTime();
+        GraphGenerator generator = new GraphGenerator(family, n, degree, cluster, seed);
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        long m = generator.write(out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(out);
+        System.out.printf("%s: %s, %d vertices, %d edges, %.1f MB in %.2f s (%.1f MB/s)%n",
+                out, family, n, m, bytes / 1e6, seconds, bytes / 1e6 / seconds);
+    }
+}
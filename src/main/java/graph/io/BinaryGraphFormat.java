@@ -0,0 +1,196 @@
+package graph.io;
+
+import graph.core.CSRGraph;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Little-endian on-disk CSR layout (".csrg"):
+ *
+ *   0  int    magic "CSRG"
+ *   4  int    format version (1)
+ *   8  int    n
+ *  12  int    flags (bit 0: weights present)
+ *  16  long   m
+ *  24  int    source
+ *  28  int    reserved
+ *  32  int[n + 1] offsets, then int[m] targets,
+ *      then (if weighted) double[m] weights starting on an 8-byte boundary.
+ *
+ * Loading maps the file read-only; the algorithms read the mapped buffers
+ * directly through MappedCSRGraph, so startup does no parsing and no copying.
+ *
+ * Usage: BinaryGraphFormat input.json [output.csrg]
+ *        BinaryGraphFormat dataDir [outputDir]
+ */
+public final class BinaryGraphFormat {
+
+    public static final String EXTENSION = ".csrg";
+
+    static final int MAGIC = 0x47525343;
+    static final int VERSION = 1;
+    static final int FLAG_WEIGHTS = 1;
+    static final int HEADER_BYTES = 32;
+
+    private BinaryGraphFormat() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: BinaryGraphFormat <input.json|dir> [output.csrg|dir]");
+            return;
+        }
+        Path in = Paths.get(args[0]);
+        if (Files.isDirectory(in)) {
+            Path outDir = args.length > 1 ? Paths.get(args[1]) : in;
+            Files.createDirectories(outDir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(in, "*.json")) {
+                for (Path file : files) convert(file, outDir.resolve(binaryName(file)));
+            }
+        } else {
+            convert(in, args.length > 1 ? Paths.get(args[1]) : in.resolveSibling(binaryName(in)));
+        }
+    }
+
+    private static String binaryName(Path json) {
+        String name = json.getFileName().toString();
+        return name.substring(0, name.length() - ".json".length()) + EXTENSION;
+    }
+
+    public static void convert(Path json, Path out) throws IOException {
+        LoadedGraph loaded = GraphLoader.load(json);
+        long start = System.nanoTime();
+        write(loaded.graph(), loaded.source(), out);
+        System.out.printf("%s -> %s: %d vertices, %d edges, parsed at %.1f MB/s, written in %.3f ms%n",
+                json.getFileName(), out.getFileName(), loaded.graph().numVertices(), loaded.graph().numEdges(),
+                loaded.throughputMBps(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    public static void write(CSRGraph g, int source, Path out) throws IOException {
+        int n = g.numVertices();
+        try (Writer w = new Writer(out, n, source)) {
+            for (int u = 0; u < n; u++) w.degree(g.outDegree(u));
+            for (int e = 0; e < g.numEdges(); e++) w.edge(g.target(e), g.weight(e));
+        }
+    }
+
+    /**
+     * Streams a graph to disk without holding it in memory: first the out-degree
+     * of every vertex in order, then the edges grouped by source vertex in the
+     * same order. Targets and weights go through separate buffers to their own
+     * file regions, and the header is written on close, once m is known.
+     */
+    public static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int n;
+        private final int source;
+        private final ByteBuffer main = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer weights = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long mainPos = HEADER_BYTES;
+        private long weightsPos;
+        private int degrees;
+        private long m;
+        private long edges;
+
+        public Writer(Path out, int n, int source) throws IOException {
+            this.channel = FileChannel.open(out, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.n = n;
+            this.source = source;
+            main.putInt(0);
+            if (n == 0) weightsPos = weightsPosition(0, 0);
+        }
+
+        public void degree(int d) throws IOException {
+            if (degrees == n) throw new IllegalStateException("All " + n + " degrees already written");
+            m += d;
+            if (m > Integer.MAX_VALUE) throw new IOException("Too many edges for " + EXTENSION + ": " + m);
+            mainPos = put(main, mainPos, Integer.BYTES);
+            main.putInt((int) m);
+            if (++degrees == n) weightsPos = weightsPosition(n, m);
+        }
+
+        public void edge(int target, double weight) throws IOException {
+            if (degrees < n) throw new IllegalStateException("Degrees missing: " + degrees + " of " + n);
+            if (edges == m) throw new IllegalStateException("More edges than the " + m + " announced");
+            if (target < 0 || target >= n) throw new IllegalArgumentException("Target " + target + " out of range");
+            mainPos = put(main, mainPos, Integer.BYTES);
+            main.putInt(target);
+            weightsPos = put(weights, weightsPos, Double.BYTES);
+            weights.putDouble(weight);
+            edges++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (degrees < n || edges != m)
+                    throw new IOException("Incomplete graph: " + degrees + " of " + n + " degrees, "
+                            + edges + " of " + m + " edges");
+                mainPos = drain(main, mainPos);
+                long pad = weightsPosition(n, m) - mainPos;
+                if (pad > 0) {
+                    main.put(new byte[(int) pad]);
+                    mainPos = drain(main, mainPos);
+                }
+                drain(weights, weightsPos);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(FLAG_WEIGHTS)
+                        .putLong(m).putInt(source).putInt(0).flip();
+                while (header.hasRemaining()) channel.write(header, header.position());
+            } finally {
+                channel.close();
+            }
+        }
+
+        // Makes room for the next value; returns the file position the buffer will be written at.
+        private long put(ByteBuffer buf, long pos, int bytes) throws IOException {
+            return buf.remaining() < bytes ? drain(buf, pos) : pos;
+        }
+
+        private long drain(ByteBuffer buf, long pos) throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) pos += channel.write(buf, pos);
+            buf.clear();
+            return pos;
+        }
+    }
+
+    private static long weightsPosition(int n, long m) {
+        long end = HEADER_BYTES + 4L * (n + 1) + 4L * m;
+        return (end + 7) & ~7L;
+    }
+
+    public static LoadedGraph load(Path path) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException(path + " is too short for a graph header");
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) throw new IOException(path + " is not a " + EXTENSION + " file");
+            if (header.getInt(4) != VERSION)
+                throw new IOException(path + ": unsupported format version " + header.getInt(4));
+            int n = header.getInt(8);
+            int flags = header.getInt(12);
+            long m = header.getLong(16);
+            int source = header.getInt(24);
+            if (n < 0 || m < 0 || m > Integer.MAX_VALUE)
+                throw new IOException(path + ": invalid sizes n = " + n + ", m = " + m);
+
+            boolean weighted = (flags & FLAG_WEIGHTS) != 0;
+            long targetsPos = HEADER_BYTES + 4L * (n + 1);
+            long weightsPos = weighted ? weightsPosition(n, m) : -1;
+            long expected = weighted ? weightsPos + 8L * m : targetsPos + 4L * m;
+            if (size < expected)
+                throw new IOException(path + " is truncated: " + size + " bytes, expected " + expected);
+
+            MappedCSRGraph graph = new MappedCSRGraph(channel, n, (int) m, HEADER_BYTES, targetsPos, weightsPos);
+            return new LoadedGraph(graph, source, size, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package graph.io;
+
+import graph.core.CSRGraph;
+
+/**
+ * A graph read from disk together with its source vertex and load statistics.
+ */
+public final class LoadedGraph {
+
+    private final CSRGraph graph;
+    private final int source;
+    private final long bytes;
+    private final long loadTimeNs;
+
+    public LoadedGraph(CSRGraph graph, int source, long bytes, long loadTimeNs) {
+        this.graph = graph;
+        this.source = source;
+        this.bytes = bytes;
+        this.loadTimeNs = loadTimeNs;
+    }
+
+    public CSRGraph graph() {
+        return graph;
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public long loadTimeNs() {
+        return loadTimeNs;
+    }
+
+    public double throughputMBps() {
+        if (loadTimeNs == 0) return 0;
+        return (bytes / (1024.0 * 1024.0)) / (loadTimeNs / 1_000_000_000.0);
+    }
+}
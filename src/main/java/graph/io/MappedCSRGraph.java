@@ -0,0 +1,90 @@
+package graph.io;
+
+import graph.core.CSRGraph;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+
+/**
+ * CSR graph served straight from a memory-mapped binary graph file. Each array
+ * section is mapped in 1 GiB segments, so the file may be larger than both the
+ * heap and a single MappedByteBuffer. Only pages that are touched get loaded.
+ */
+public final class MappedCSRGraph extends CSRGraph {
+
+    private static final int INT_SHIFT = 28;
+    private static final int INT_MASK = (1 << INT_SHIFT) - 1;
+    private static final int DOUBLE_SHIFT = 27;
+    private static final int DOUBLE_MASK = (1 << DOUBLE_SHIFT) - 1;
+
+    private final int n;
+    private final int m;
+    private final IntBuffer[] offsets;
+    private final IntBuffer[] targets;
+    private final DoubleBuffer[] weights;
+
+    MappedCSRGraph(FileChannel channel, int n, int m,
+                   long offsetsPos, long targetsPos, long weightsPos) throws IOException {
+        this.n = n;
+        this.m = m;
+        this.offsets = mapInts(channel, offsetsPos, n + 1L);
+        this.targets = mapInts(channel, targetsPos, m);
+        this.weights = weightsPos < 0 ? null : mapDoubles(channel, weightsPos, m);
+    }
+
+    private static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        int segments = (int) Math.max(1, (count + INT_MASK) >>> INT_SHIFT);
+        IntBuffer[] buffers = new IntBuffer[segments];
+        for (int s = 0; s < segments; s++) {
+            long first = (long) s << INT_SHIFT;
+            long length = Math.min(count - first, 1L << INT_SHIFT);
+            buffers[s] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Integer.BYTES,
+                    length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return buffers;
+    }
+
+    private static DoubleBuffer[] mapDoubles(FileChannel channel, long position, long count) throws IOException {
+        int segments = (int) Math.max(1, (count + DOUBLE_MASK) >>> DOUBLE_SHIFT);
+        DoubleBuffer[] buffers = new DoubleBuffer[segments];
+        for (int s = 0; s < segments; s++) {
+            long first = (long) s << DOUBLE_SHIFT;
+            long length = Math.min(count - first, 1L << DOUBLE_SHIFT);
+            buffers[s] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Double.BYTES,
+                    length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return buffers;
+    }
+
+    @Override
+    public int numVertices() {
+        return n;
+    }
+
+    @Override
+    public int numEdges() {
+        return m;
+    }
+
+    @Override
+    public int begin(int u) {
+        return offsets[u >>> INT_SHIFT].get(u & INT_MASK);
+    }
+
+    @Override
+    public int end(int u) {
+        int i = u + 1;
+        return offsets[i >>> INT_SHIFT].get(i & INT_MASK);
+    }
+
+    @Override
+    public int target(int e) {
+        return targets[e >>> INT_SHIFT].get(e & INT_MASK);
+    }
+
+    @Override
+    public double weight(int e) {
+        return weights == null ? 1.0 : weights[e >>> DOUBLE_SHIFT].get(e & DOUBLE_MASK);
+    }
+}
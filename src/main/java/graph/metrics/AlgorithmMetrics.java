@@ -1,12 +1,14 @@
 package graph.metrics;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class AlgorithmMetrics implements Metrics {
     private long startTime;
     private long elapsedTime;
-    private final Map<String, Integer> counters = new HashMap<>();
+    private final Map<String, Integer> handles = new HashMap<>();
+    private String[] names = new String[8];
+    private long[] counts = new long[8];
+    private int size;
 
     @Override
     public void startTimer() {
@@ -25,17 +27,43 @@ public class AlgorithmMetrics implements Metrics {
 
     @Override
     public void reset() {
-        counters.clear();
+        Arrays.fill(counts, 0, size, 0);
         elapsedTime = 0;
     }
 
     @Override
     public void incrementCounter(String name) {
-        counters.put(name, counters.getOrDefault(name, 0) + 1);
+        counts[counterHandle(name)]++;
     }
 
     @Override
-    public int getCounter(String name) {
-        return counters.getOrDefault(name, 0);
+    public long getCounter(String name) {
+        Integer handle = handles.get(name);
+        return handle == null ? 0 : counts[handle];
+    }
+
+    @Override
+    public int counterHandle(String name) {
+        Integer handle = handles.get(name);
+        if (handle != null) return handle;
+        if (size == counts.length) {
+            counts = Arrays.copyOf(counts, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        handles.put(name, size);
+        return size++;
+    }
+
+    @Override
+    public void add(int handle, long delta) {
+        counts[handle] += delta;
+    }
+
+    // Counter values in registration order.
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) snapshot.put(names[i], counts[i]);
+        return snapshot;
     }
 }
@@ -1,10 +1,17 @@
 package graph.metrics;
 
+/**
+ * Timer plus named 64-bit counters. Hot loops should resolve a handle once with
+ * counterHandle and report through add; the String-keyed methods are for
+ * setup and reporting.
+ */
 public interface Metrics {
     void startTimer();
     void stopTimer();
     long getElapsedTimeNs();
     void reset();
     void incrementCounter(String name);
-    int getCounter(String name);
+    long getCounter(String name);
+    int counterHandle(String name);
+    void add(int handle, long delta);
 }
@@ -0,0 +1,132 @@
+package graph.metrics;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compares two exported runs record by record (matched on dataset and
+ * algorithm) and flags a regression when the candidate's median time exceeds
+ * the baseline's by more than the relative threshold and by more than a small
+ * absolute floor (default 0.05 ms), so timer noise on tiny inputs is not reported.
+ *
+ * Usage: java graph.metrics.MetricsCompare BASELINE CANDIDATE [--threshold PCT] [--min-ms MS]
+ * Exits with status 1 if any regression is found and 2 on bad arguments.
+ */
+public final class MetricsCompare {
+
+    public static final class Delta {
+        private final String dataset;
+        private final String algorithm;
+        private final double baselineMs;
+        private final double candidateMs;
+        private final boolean regression;
+
+        Delta(String dataset, String algorithm, double baselineMs, double candidateMs, boolean regression) {
+            this.dataset = dataset;
+            this.algorithm = algorithm;
+            this.baselineMs = baselineMs;
+            this.candidateMs = candidateMs;
+            this.regression = regression;
+        }
+
+        public String dataset() {
+            return dataset;
+        }
+
+        public String algorithm() {
+            return algorithm;
+        }
+
+        public double baselineMs() {
+            return baselineMs;
+        }
+
+        public double candidateMs() {
+            return candidateMs;
+        }
+
+        // Relative change of the median in percent; positive means slower.
+        public double changePercent() {
+            return baselineMs == 0 ? 0 : (candidateMs - baselineMs) / baselineMs * 100.0;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+    }
+
+    private MetricsCompare() {
+    }
+
+    // Pairs present in both runs, in the baseline's order.
+    public static List<Delta> compare(List<MetricsRecord> baseline, List<MetricsRecord> candidate,
+                                      double thresholdPercent, double minMs) {
+        Map<String, MetricsRecord> byKey = new HashMap<>();
+        for (MetricsRecord r : candidate) byKey.put(key(r), r);
+
+        List<Delta> deltas = new ArrayList<>();
+        for (MetricsRecord base : baseline) {
+            MetricsRecord cand = byKey.get(key(base));
+            if (cand == null) continue;
+            double limit = base.medianMs() * (1 + thresholdPercent / 100.0);
+            boolean regression = cand.medianMs() > limit && cand.medianMs() - base.medianMs() > minMs;
+            deltas.add(new Delta(base.dataset(), base.algorithm(), base.medianMs(), cand.medianMs(), regression));
+        }
+        return deltas;
+    }
+
+    private static String key(MetricsRecord r) {
+        return r.dataset() + '\u0000' + r.algorithm();
+    }
+
+    private static final String USAGE = "Usage: MetricsCompare BASELINE CANDIDATE [--threshold PCT] [--min-ms MS]";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            System.exit(2);
+        }
+        double threshold = 10.0;
+        double minMs = 0.05;
+        try {
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--threshold") && i + 1 < args.length) {
+                    threshold = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--min-ms") && i + 1 < args.length) {
+                    minMs = Double.parseDouble(args[++i]);
+                } else {
+                    System.out.println("Unknown argument " + args[i] + "\n" + USAGE);
+                    System.exit(2);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println(e.getMessage() + "\n" + USAGE);
+            System.exit(2);
+        }
+
+        List<MetricsRecord> baseline = MetricsExport.read(Paths.get(args[0]));
+        List<MetricsRecord> candidate = MetricsExport.read(Paths.get(args[1]));
+        List<Delta> deltas = compare(baseline, candidate, threshold, minMs);
+        int unmatched = baseline.size() - deltas.size();
+
+        System.out.printf("Baseline run: %s, candidate run: %s, threshold: %.1f%%%n%n",
+                baseline.isEmpty() ? "-" : baseline.get(0).runId(),
+                candidate.isEmpty() ? "-" : candidate.get(0).runId(), threshold);
+        System.out.printf("%-15s %-32s %-14s %-14s %-10s %s%n",
+                "Dataset", "Algorithm", "Base(ms)", "New(ms)", "Change", "");
+        System.out.println("---------------------------------------------------------------------------------------------");
+        int regressions = 0;
+        for (Delta d : deltas) {
+            if (d.isRegression()) regressions++;
+            System.out.printf("%-15s %-32s %-14.3f %-14.3f %+-10.1f %s%n",
+                    d.dataset(), d.algorithm(), d.baselineMs(), d.candidateMs(), d.changePercent(),
+                    d.isRegression() ? "REGRESSION" : "");
+        }
+        System.out.println("\n" + regressions + " regression(s) in " + deltas.size() + " compared measurements.");
+        if (unmatched > 0)
+            System.out.println(unmatched + " baseline measurement(s) have no counterpart in the candidate"
+                    + " and were not compared.");
+        if (regressions > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,210 @@
+package graph.metrics;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Writes and reads MetricsRecords as JSON Lines (one object per line, counters
+ * as a nested object) or CSV (fixed columns, counters packed as name=value
+ * pairs separated by ';'). The format is chosen by file extension: ".csv" is
+ * CSV, anything else is JSON Lines.
+ */
+public final class MetricsExport {
+
+    private static final String[] COLUMNS = {
+            "schema_version", "run_id", "dataset", "algorithm", "vertices", "edges", "sccs", "trials",
+            "min_ms", "median_ms", "p95_ms", "p99_ms", "stddev_ms", "gc_count", "gc_time_ms",
+            "alloc_bytes", "counters"
+    };
+
+    private MetricsExport() {
+    }
+
+    // UTC timestamp plus a random suffix, e.g. 20261018T101500Z-3f9a1c.
+    public static String newRunId() {
+        String time = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC).format(Instant.now());
+        return time + "-" + String.format("%06x", new Random().nextInt(1 << 24));
+    }
+
+    public static void write(List<MetricsRecord> records, Path path) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (isCsv(path)) writeCsv(records, out);
+            else writeJsonLines(records, out);
+        }
+    }
+
+    public static List<MetricsRecord> read(Path path) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return isCsv(path) ? readCsv(in) : readJsonLines(in);
+        }
+    }
+
+    public static void writeJsonLines(List<MetricsRecord> records, Writer out) throws IOException {
+        for (MetricsRecord r : records) {
+            StringWriter line = new StringWriter();
+            JsonWriter json = new JsonWriter(line);
+            json.beginObject();
+            json.name("schema_version").value(MetricsRecord.SCHEMA_VERSION);
+            json.name("run_id").value(r.runId());
+            json.name("dataset").value(r.dataset());
+            json.name("algorithm").value(r.algorithm());
+            json.name("vertices").value(r.vertices());
+            json.name("edges").value(r.edges());
+            json.name("sccs").value(r.sccs());
+            json.name("trials").value(r.trials());
+            json.name("min_ms").value(r.minMs());
+            json.name("median_ms").value(r.medianMs());
+            json.name("p95_ms").value(r.p95Ms());
+            json.name("p99_ms").value(r.p99Ms());
+            json.name("stddev_ms").value(r.stdDevMs());
+            json.name("gc_count").value(r.gcCount());
+            json.name("gc_time_ms").value(r.gcTimeMs());
+            json.name("alloc_bytes").value(r.allocatedBytes());
+            json.name("counters").beginObject();
+            for (Map.Entry<String, Long> c : r.counters().entrySet())
+                json.name(c.getKey()).value(c.getValue());
+            json.endObject();
+            json.endObject();
+            json.close();
+            out.write(line.toString());
+            out.write('\n');
+        }
+    }
+
+    public static void writeCsv(List<MetricsRecord> records, Writer out) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write('\n');
+        for (MetricsRecord r : records) {
+            StringBuilder counters = new StringBuilder();
+            for (Map.Entry<String, Long> c : r.counters().entrySet()) {
+                if (counters.length() > 0) counters.append(';');
+                counters.append(c.getKey()).append('=').append(c.getValue());
+            }
+            String[] row = {
+                    String.valueOf(MetricsRecord.SCHEMA_VERSION), r.runId(), r.dataset(), r.algorithm(),
+                    String.valueOf(r.vertices()), String.valueOf(r.edges()), String.valueOf(r.sccs()),
+                    String.valueOf(r.trials()), String.valueOf(r.minMs()), String.valueOf(r.medianMs()),
+                    String.valueOf(r.p95Ms()), String.valueOf(r.p99Ms()), String.valueOf(r.stdDevMs()),
+                    String.valueOf(r.gcCount()), String.valueOf(r.gcTimeMs()),
+                    String.valueOf(r.allocatedBytes()), counters.toString()
+            };
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(csvField(row[i]));
+            }
+            out.write('\n');
+        }
+    }
+
+    private static List<MetricsRecord> readJsonLines(BufferedReader in) throws IOException {
+        List<MetricsRecord> records = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            Map<String, String> fields = new HashMap<>();
+            Map<String, Long> counters = new LinkedHashMap<>();
+            JsonReader json = new JsonReader(new StringReader(line));
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (name.equals("counters")) {
+                    json.beginObject();
+                    while (json.hasNext()) counters.put(json.nextName(), json.nextLong());
+                    json.endObject();
+                } else if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                } else {
+                    fields.put(name, json.nextString());
+                }
+            }
+            json.endObject();
+            records.add(toRecord(fields, counters));
+        }
+        return records;
+    }
+
+    private static List<MetricsRecord> readCsv(BufferedReader in) throws IOException {
+        List<MetricsRecord> records = new ArrayList<>();
+        String header = in.readLine();
+        if (header == null) return records;
+        List<String> names = splitCsv(header);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            List<String> values = splitCsv(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < names.size() && i < values.size(); i++)
+                fields.put(names.get(i), values.get(i));
+            Map<String, Long> counters = new LinkedHashMap<>();
+            String packed = fields.getOrDefault("counters", "");
+            if (!packed.isEmpty()) {
+                for (String pair : packed.split(";")) {
+                    int eq = pair.lastIndexOf('=');
+                    counters.put(pair.substring(0, eq), Long.parseLong(pair.substring(eq + 1)));
+                }
+            }
+            records.add(toRecord(fields, counters));
+        }
+        return records;
+    }
+
+    private static MetricsRecord toRecord(Map<String, String> f, Map<String, Long> counters) throws IOException {
+        String version = f.get("schema_version");
+        if (version == null || Integer.parseInt(version) != MetricsRecord.SCHEMA_VERSION)
+            throw new IOException("Unsupported metrics schema version: " + version);
+        return new MetricsRecord(f.get("run_id"), f.get("dataset"), f.get("algorithm"),
+                Integer.parseInt(f.get("vertices")), Integer.parseInt(f.get("edges")),
+                Integer.parseInt(f.get("sccs")), Integer.parseInt(f.get("trials")),
+                Double.parseDouble(f.get("min_ms")), Double.parseDouble(f.get("median_ms")),
+                Double.parseDouble(f.get("p95_ms")), Double.parseDouble(f.get("p99_ms")),
+                Double.parseDouble(f.get("stddev_ms")), Double.parseDouble(f.get("gc_count")),
+                Double.parseDouble(f.get("gc_time_ms")), Double.parseDouble(f.get("alloc_bytes")),
+                counters);
+    }
+
+    private static boolean isCsv(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,124 @@
+package graph.metrics;
+
+import java.util.*;
+
+/**
+ * One exported measurement: one algorithm on one dataset within a run.
+ * Times are in milliseconds; gcCount, gcTimeMs and allocatedBytes are
+ * per-trial means, with allocatedBytes = -1 when the JVM does not report it.
+ */
+public final class MetricsRecord {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    private final String runId;
+    private final String dataset;
+    private final String algorithm;
+    private final int vertices;
+    private final int edges;
+    private final int sccs;
+    private final int trials;
+    private final double minMs;
+    private final double medianMs;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double stdDevMs;
+    private final double gcCount;
+    private final double gcTimeMs;
+    private final double allocatedBytes;
+    private final Map<String, Long> counters;
+
+    public MetricsRecord(String runId, String dataset, String algorithm, int vertices, int edges, int sccs,
+                         int trials, double minMs, double medianMs, double p95Ms, double p99Ms, double stdDevMs,
+                         double gcCount, double gcTimeMs, double allocatedBytes, Map<String, Long> counters) {
+        this.runId = runId;
+        this.dataset = dataset;
+        this.algorithm = algorithm;
+        this.vertices = vertices;
+        this.edges = edges;
+        this.sccs = sccs;
+        this.trials = trials;
+        this.minMs = minMs;
+        this.medianMs = medianMs;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.stdDevMs = stdDevMs;
+        this.gcCount = gcCount;
+        this.gcTimeMs = gcTimeMs;
+        this.allocatedBytes = allocatedBytes;
+        this.counters = Collections.unmodifiableMap(new LinkedHashMap<>(counters));
+    }
+
+    // Timings come from the trials; counters from the metrics of one (typically the last) trial.
+    public static MetricsRecord of(String runId, String dataset, String algorithm, int vertices, int edges,
+                                   int sccs, TrialStats stats, AlgorithmMetrics metrics) {
+        return new MetricsRecord(runId, dataset, algorithm, vertices, edges, sccs,
+                stats.trials(), stats.minMs(), stats.medianMs(), stats.percentileMs(95),
+                stats.percentileMs(99), stats.stdDevMs(), stats.meanGcCount(), stats.meanGcTimeMs(),
+                stats.meanAllocatedBytes(), metrics.counters());
+    }
+
+    public String runId() {
+        return runId;
+    }
+
+    public String dataset() {
+        return dataset;
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public int vertices() {
+        return vertices;
+    }
+
+    public int edges() {
+        return edges;
+    }
+
+    public int sccs() {
+        return sccs;
+    }
+
+    public int trials() {
+        return trials;
+    }
+
+    public double minMs() {
+        return minMs;
+    }
+
+    public double medianMs() {
+        return medianMs;
+    }
+
+    public double p95Ms() {
+        return p95Ms;
+    }
+
+    public double p99Ms() {
+        return p99Ms;
+    }
+
+    public double stdDevMs() {
+        return stdDevMs;
+    }
+
+    public double gcCount() {
+        return gcCount;
+    }
+
+    public double gcTimeMs() {
+        return gcTimeMs;
+    }
+
+    public double allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public Map<String, Long> counters() {
+        return counters;
+    }
+}
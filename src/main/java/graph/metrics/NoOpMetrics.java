@@ -0,0 +1,48 @@
+package graph.metrics;
+
+/**
+ * Metrics that record nothing, for production runs where instrumentation
+ * should cost nothing.
+ */
+public final class NoOpMetrics implements Metrics {
+
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void startTimer() {
+    }
+
+    @Override
+    public void stopTimer() {
+    }
+
+    @Override
+    public long getElapsedTimeNs() {
+        return 0;
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public void incrementCounter(String name) {
+    }
+
+    @Override
+    public long getCounter(String name) {
+        return 0;
+    }
+
+    @Override
+    public int counterHandle(String name) {
+        return 0;
+    }
+
+    @Override
+    public void add(int handle, long delta) {
+    }
+}
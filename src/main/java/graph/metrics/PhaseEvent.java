@@ -0,0 +1,30 @@
+package graph.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event for one pipeline phase of one dataset; see PhaseRecorder.
+ */
+@Name("graph.Phase")
+@Label("Pipeline Phase")
+@Category({"Graph", "Pipeline"})
+@Description("One phase of the batch pipeline (load, build, reorder, scc, condense, topo, paths)")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    @Label("Dataset")
+    String dataset;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Vertices")
+    long vertices;
+
+    @Label("Edges")
+    long edges;
+
+    @Label("Warm-up")
+    @Description("Run before measurement started; not included in the reported figures")
+    boolean warmup;
+}
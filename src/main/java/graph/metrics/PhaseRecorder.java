@@ -0,0 +1,91 @@
+package graph.metrics;
+
+import java.util.Locale;
+
+/**
+ * Times the phases of the batch pipeline for one dataset. Each measured phase adds
+ * its wall time to the "<phase>_ns" counter of a Metrics, and every phase, warm-up
+ * runs included, is committed as a graph.Phase Java Flight Recorder event with the
+ * dataset, the phase and the vertex and edge counts it worked on. The events cost
+ * almost nothing unless a recording is running, e.g.
+ * java -XX:StartFlightRecording=filename=run.jfr graph.GraphBatchRunner
+ */
+public final class PhaseRecorder {
+
+    public enum Phase {
+        LOAD(false), BUILD(false), REORDER(false), SCC(true), CONDENSE(true), TOPO(true), PATHS(true);
+
+        private final boolean perTrial;
+
+        Phase(boolean perTrial) {
+            this.perTrial = perTrial;
+        }
+
+        // True for phases repeated in every trial, false for those run once per dataset.
+        public boolean perTrial() {
+            return perTrial;
+        }
+
+        public String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public String counterName() {
+            return label() + "_ns";
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String dataset;
+    private final Metrics metrics;
+    private final int[] handles = new int[PHASES.length];
+    private final PhaseEvent[] events = new PhaseEvent[PHASES.length];
+    private final long[] started = new long[PHASES.length];
+    private boolean measured = true;
+
+    public PhaseRecorder(String dataset, Metrics metrics) {
+        this.dataset = dataset;
+        this.metrics = metrics;
+        for (Phase p : PHASES) handles[p.ordinal()] = metrics.counterHandle(p.counterName());
+    }
+
+    public Metrics metrics() {
+        return metrics;
+    }
+
+    // Phases ended while not measured still emit events (marked as warm-up) but add nothing to the counters.
+    public void setMeasured(boolean measured) {
+        this.measured = measured;
+    }
+
+    public void begin(Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        events[phase.ordinal()] = event;
+        started[phase.ordinal()] = System.nanoTime();
+    }
+
+    public long end(Phase phase, long vertices, long edges) {
+        int i = phase.ordinal();
+        long ns = System.nanoTime() - started[i];
+        if (measured) metrics.add(handles[i], ns);
+        PhaseEvent event = events[i];
+        events[i] = null;
+        if (event == null) throw new IllegalStateException(phase + " was not begun");
+        event.end();
+        if (event.shouldCommit()) {
+            event.dataset = dataset;
+            event.phase = phase.label();
+            event.vertices = vertices;
+            event.edges = edges;
+            event.warmup = !measured;
+            event.commit();
+        }
+        return ns;
+    }
+
+    public long totalNs(Phase phase) {
+        return metrics.getCounter(phase.counterName());
+    }
+}
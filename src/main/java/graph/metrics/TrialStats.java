@@ -0,0 +1,146 @@
+package graph.metrics;
+
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * Collects repeated measurements of one algorithm. Each trial is bracketed by
+ * begin() and end(metrics): the elapsed time comes from the metrics timer, GC
+ * count and time from the GarbageCollectorMXBeans (JVM-wide), and allocated
+ * bytes from the calling thread's ThreadMXBean counter where the JVM offers it.
+ */
+public class TrialStats {
+    private long[] timesNs = new long[8];
+    private long[] gcCounts = new long[8];
+    private long[] gcTimesMs = new long[8];
+    private long[] allocatedBytes = new long[8];
+    private int size;
+
+    private long gcCountStart;
+    private long gcTimeStart;
+    private long allocatedStart;
+
+    public void begin() {
+        gcCountStart = gcCount();
+        gcTimeStart = gcTimeMs();
+        allocatedStart = threadAllocatedBytes();
+    }
+
+    public void end(Metrics metrics) {
+        long allocated = threadAllocatedBytes();
+        if (size == timesNs.length) {
+            int cap = size * 2;
+            timesNs = Arrays.copyOf(timesNs, cap);
+            gcCounts = Arrays.copyOf(gcCounts, cap);
+            gcTimesMs = Arrays.copyOf(gcTimesMs, cap);
+            allocatedBytes = Arrays.copyOf(allocatedBytes, cap);
+        }
+        timesNs[size] = metrics.getElapsedTimeNs();
+        gcCounts[size] = gcCount() - gcCountStart;
+        gcTimesMs[size] = gcTimeMs() - gcTimeStart;
+        allocatedBytes[size] = allocated < 0 || allocatedStart < 0 ? -1 : allocated - allocatedStart;
+        size++;
+    }
+
+    public int trials() {
+        return size;
+    }
+
+    public long timeNs(int trial) {
+        return timesNs[trial];
+    }
+
+    public long gcCount(int trial) {
+        return gcCounts[trial];
+    }
+
+    public long gcTimeMs(int trial) {
+        return gcTimesMs[trial];
+    }
+
+    // -1 when the JVM does not report per-thread allocation.
+    public long allocatedBytes(int trial) {
+        return allocatedBytes[trial];
+    }
+
+    public double minMs() {
+        return percentileMs(0);
+    }
+
+    public double medianMs() {
+        return percentileMs(50);
+    }
+
+    // Nearest-rank percentile of the trial times.
+    public double percentileMs(double p) {
+        if (size == 0) return Double.NaN;
+        long[] sorted = Arrays.copyOf(timesNs, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100.0 * size);
+        return sorted[Math.max(0, Math.min(size - 1, rank - 1))] / 1_000_000.0;
+    }
+
+    public double meanMs() {
+        if (size == 0) return Double.NaN;
+        double sum = 0;
+        for (int i = 0; i < size; i++) sum += timesNs[i];
+        return sum / size / 1_000_000.0;
+    }
+
+    // Sample standard deviation of the trial times.
+    public double stdDevMs() {
+        if (size < 2) return 0;
+        double mean = meanMs();
+        double sq = 0;
+        for (int i = 0; i < size; i++) {
+            double d = timesNs[i] / 1_000_000.0 - mean;
+            sq += d * d;
+        }
+        return Math.sqrt(sq / (size - 1));
+    }
+
+    public double meanGcCount() {
+        return mean(gcCounts);
+    }
+
+    public double meanGcTimeMs() {
+        return mean(gcTimesMs);
+    }
+
+    public double meanAllocatedBytes() {
+        for (int i = 0; i < size; i++)
+            if (allocatedBytes[i] < 0) return -1;
+        return mean(allocatedBytes);
+    }
+
+    private double mean(long[] values) {
+        if (size == 0) return 0;
+        double sum = 0;
+        for (int i = 0; i < size; i++) sum += values[i];
+        return sum / size;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            total += Math.max(0, gc.getCollectionCount());
+        return total;
+    }
+
+    private static long gcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    private static long threadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) threads;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled())
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,284 @@
+package graph.reach;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+
+import java.util.*;
+
+/**
+ * Answers "can u reach v?" on original vertex ids after one pass over the
+ * condensation DAG, whose component ids are already a topological order. Every
+ * query first goes through constant-time filters:
+ *
+ *   same component                                   -> true
+ *   cu after cv in topological order                 -> false
+ *   cv inside cu's DFS spanning-tree interval        -> true
+ *   post(cv) outside [minimum descendant post, post(cu)] -> false (GRAIL-style label)
+ *
+ * and then through one of two exact layers, chosen by the memory budget:
+ *
+ *   BITSET    the transitive closure as one bit row per component, when C * C / 8
+ *             bytes fit the budget; a query is a single bit test.
+ *   LANDMARK  pruned landmark labels (Yano et al.): components are processed as
+ *             landmarks by (in + 1) * (out + 1), highest first, and each forward and
+ *             backward search stops where earlier labels already prove the pair.
+ *             u reaches v iff out-label(u) and in-label(v) share a landmark. When
+ *             the labels outgrow the budget, the remaining components are left out,
+ *             and queries with no common landmark fall back to a DFS that uses the
+ *             filters and labels for pruning.
+ *
+ * Queries share scratch space, so an index must not be queried concurrently.
+ */
+public final class ReachabilityIndex {
+
+    public enum Mode { BITSET, LANDMARK }
+
+    private final int[] componentOf;
+    private final CSRGraph dag;
+    private final int c;
+    private final int[] pre;
+    private final int[] post;
+    private final int[] low;
+    private final Mode mode;
+
+    private long[] closure;
+    private int words;
+
+    private int[][] in;
+    private int[][] out;
+    private int[] inSize;
+    private int[] outSize;
+    private int landmarks;
+    private long labelEntries;
+
+    private int[] mark;
+    private int epoch;
+    private int[] stack;
+    private long fallbackSearches;
+
+    private ReachabilityIndex(SCCResult scc, CSRGraph dag, long memoryBudgetBytes) {
+        this.componentOf = scc.componentOfArray();
+        this.dag = dag;
+        this.c = dag.numVertices();
+        this.pre = new int[c];
+        this.post = new int[c];
+        this.low = new int[c];
+        intervals();
+        words = (c + 63) >>> 6;
+        long closureWords = (long) c * words;
+        if (closureWords * 8 <= memoryBudgetBytes && closureWords <= Integer.MAX_VALUE - 8) {
+            mode = Mode.BITSET;
+            buildClosure();
+        } else {
+            mode = Mode.LANDMARK;
+            buildLandmarks(memoryBudgetBytes);
+        }
+    }
+
+    public static ReachabilityIndex build(CSRGraph g, SCCResult scc, long memoryBudgetBytes, Metrics metrics) {
+        return build(scc, Kosaraju.buildCondensationGraph(g, scc), memoryBudgetBytes, metrics);
+    }
+
+    // dag must be the condensation of scc, numbered by its component ids.
+    public static ReachabilityIndex build(SCCResult scc, CSRGraph dag, long memoryBudgetBytes, Metrics metrics) {
+        if (dag.numVertices() != scc.componentCount())
+            throw new IllegalArgumentException("Condensation has " + dag.numVertices() + " vertices for "
+                    + scc.componentCount() + " components");
+        ReachabilityIndex index = new ReachabilityIndex(scc, dag, memoryBudgetBytes);
+        metrics.add(metrics.counterHandle("reach_landmarks"), index.landmarks);
+        metrics.add(metrics.counterHandle("reach_label_entries"), index.labelEntries);
+        metrics.add(metrics.counterHandle("reach_index_bytes"), index.memoryBytes());
+        return index;
+    }
+
+    public boolean reaches(int u, int v) {
+        return componentReaches(componentOf[u], componentOf[v]);
+    }
+
+    public boolean componentReaches(int cu, int cv) {
+        if (cu == cv) return true;
+        if (cu > cv) return false;
+        if (pre[cu] <= pre[cv] && post[cv] <= post[cu]) return true;
+        if (post[cv] > post[cu] || post[cv] < low[cu]) return false;
+        if (mode == Mode.BITSET) return (closure[cu * words + (cv >>> 6)] & (1L << cv)) != 0;
+        if (labelsIntersect(cu, cv)) return true;
+        return landmarks < c && search(cu, cv);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int componentCount() {
+        return c;
+    }
+
+    public int landmarkCount() {
+        return mode == Mode.BITSET ? c : landmarks;
+    }
+
+    public boolean isComplete() {
+        return mode == Mode.BITSET || landmarks == c;
+    }
+
+    public long labelEntries() {
+        return labelEntries;
+    }
+
+    public long fallbackSearches() {
+        return fallbackSearches;
+    }
+
+    // Bytes held beyond the condensation itself: filter labels plus the exact layer.
+    public long memoryBytes() {
+        long bytes = 12L * c;
+        if (mode == Mode.BITSET) return bytes + 8L * closure.length;
+        return bytes + 4 * labelEntries + 2 * 16L * c + 16L * c;
+    }
+
+    // Iterative DFS from every source in id order: pre/post numbers of the spanning
+    // forest, then low[u] = the smallest post number among u's descendants, filled in
+    // reverse topological order.
+    private void intervals() {
+        int[] indegree = new int[c];
+        for (int e = 0; e < dag.numEdges(); e++) indegree[dag.target(e)]++;
+        boolean[] seen = new boolean[c];
+        int[] cursor = new int[c];
+        int[] dfs = new int[c];
+        int preCount = 0, postCount = 0;
+        for (int root = 0; root < c; root++) {
+            if (indegree[root] != 0 || seen[root]) continue;
+            int sp = 0;
+            dfs[sp++] = root;
+            seen[root] = true;
+            pre[root] = preCount++;
+            cursor[root] = dag.begin(root);
+            while (sp > 0) {
+                int u = dfs[sp - 1];
+                if (cursor[u] < dag.end(u)) {
+                    int v = dag.target(cursor[u]++);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        pre[v] = preCount++;
+                        cursor[v] = dag.begin(v);
+                        dfs[sp++] = v;
+                    }
+                } else {
+                    post[u] = postCount++;
+                    sp--;
+                }
+            }
+        }
+        for (int u = c - 1; u >= 0; u--) {
+            int m = post[u];
+            for (int e = dag.begin(u); e < dag.end(u); e++) m = Math.min(m, low[dag.target(e)]);
+            low[u] = m;
+        }
+    }
+
+    private void buildClosure() {
+        closure = new long[c * words];
+        for (int u = c - 1; u >= 0; u--) {
+            int row = u * words;
+            closure[row + (u >>> 6)] |= 1L << u;
+            for (int e = dag.begin(u); e < dag.end(u); e++) {
+                int other = dag.target(e) * words;
+                // Successors have larger ids, so only words from u's onwards can be set.
+                for (int w = u >>> 6; w < words; w++) closure[row + w] |= closure[other + w];
+            }
+        }
+        landmarks = c;
+    }
+
+    private void buildLandmarks(long memoryBudgetBytes) {
+        CSRGraph rev = dag.reverse();
+        in = new int[c][];
+        out = new int[c][];
+        inSize = new int[c];
+        outSize = new int[c];
+        long[] importance = new long[c];
+        for (int u = 0; u < c; u++) {
+            long score = Math.min(Integer.MAX_VALUE, ((long) dag.outDegree(u) + 1) * (rev.outDegree(u) + 1));
+            importance[u] = -(score << 32 | (c - 1 - u));
+        }
+        Arrays.sort(importance);
+        mark = new int[c];
+        stack = new int[c];
+
+        long fixedBytes = memoryBytes();
+        for (int rank = 0; rank < c; rank++) {
+            int k = c - 1 - (int) (-importance[rank] & 0xFFFFFFFFL);
+            label(k, rank, dag, true);
+            label(k, rank, rev, false);
+            landmarks = rank + 1;
+            if (fixedBytes + 4 * labelEntries > memoryBudgetBytes) break;
+        }
+    }
+
+    // Breadth-first from landmark k over adj (the DAG or its reverse). A vertex whose
+    // pair with k is already answered by earlier landmarks is not labelled or expanded.
+    private void label(int k, int rank, CSRGraph adj, boolean forward) {
+        epoch++;
+        int head = 0, tail = 0;
+        stack[tail++] = k;
+        mark[k] = epoch;
+        while (head < tail) {
+            int w = stack[head++];
+            if (w != k && (forward ? labelsIntersect(k, w) : labelsIntersect(w, k))) continue;
+            if (forward) addLabel(w, rank, true);
+            else addLabel(w, rank, false);
+            for (int e = adj.begin(w); e < adj.end(w); e++) {
+                int x = adj.target(e);
+                if (mark[x] != epoch) {
+                    mark[x] = epoch;
+                    stack[tail++] = x;
+                }
+            }
+        }
+    }
+
+    private void addLabel(int w, int rank, boolean toIn) {
+        int[][] lists = toIn ? in : out;
+        int[] sizes = toIn ? inSize : outSize;
+        int[] list = lists[w];
+        if (list == null) list = lists[w] = new int[2];
+        else if (sizes[w] == list.length) list = lists[w] = Arrays.copyOf(list, 2 * list.length);
+        list[sizes[w]++] = rank;
+        labelEntries++;
+    }
+
+    // Labels are appended in increasing rank order, so a merge finds a common landmark.
+    private boolean labelsIntersect(int u, int v) {
+        int[] a = out[u], b = in[v];
+        int i = 0, j = 0, na = outSize[u], nb = inSize[v];
+        while (i < na && j < nb) {
+            if (a[i] == b[j]) return true;
+            if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return false;
+    }
+
+    private boolean search(int cu, int cv) {
+        fallbackSearches++;
+        epoch++;
+        int sp = 0;
+        stack[sp++] = cu;
+        mark[cu] = epoch;
+        while (sp > 0) {
+            int w = stack[--sp];
+            for (int e = dag.begin(w); e < dag.end(w); e++) {
+                int x = dag.target(e);
+                if (x == cv) return true;
+                if (mark[x] == epoch || x > cv || post[cv] > post[x] || post[cv] < low[x]) continue;
+                if (pre[x] <= pre[cv] && post[cv] <= post[x]) return true;
+                if (labelsIntersect(x, cv)) return true;
+                mark[x] = epoch;
+                stack[sp++] = x;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+package graph.reorder;
+
+import graph.core.CSRGraph;
+import graph.scc.SCCResult;
+
+import java.util.*;
+
+/**
+ * A relabelling of vertex ids that places vertices visited together next to each
+ * other, so the DFS stacks, in-degree counters and distance arrays of the
+ * algorithms are walked mostly sequentially instead of at random. permute builds
+ * the relabelled CSR; the toOriginal methods translate results computed on it
+ * back to the caller's ids. Component ids are not touched, so a topological order
+ * of the condensation needs no translation.
+ *
+ * Strategies:
+ *   BFS     breadth-first over out-edges, restarting from the smallest unvisited id
+ *   DFS     depth-first preorder over out-edges, restarting the same way
+ *   DEGREE  by total (in + out) degree, highest first, ties by id
+ *   RCM     reverse Cuthill-McKee over the undirected version of the graph, each
+ *           connected part started from its lowest-degree vertex
+ */
+public final class VertexReordering {
+
+    public enum Strategy { BFS, DFS, DEGREE, RCM }
+
+    private final int[] newId;
+    private final int[] oldId;
+
+    private VertexReordering(int[] newId, int[] oldId) {
+        this.newId = newId;
+        this.oldId = oldId;
+    }
+
+    // newId[v] is the id vertex v gets; it must be a permutation of 0..n-1.
+    public static VertexReordering of(int[] newId) {
+        int[] oldId = new int[newId.length];
+        Arrays.fill(oldId, -1);
+        for (int v = 0; v < newId.length; v++) {
+            int p = newId[v];
+            if (p < 0 || p >= newId.length || oldId[p] >= 0)
+                throw new IllegalArgumentException("Not a permutation: id " + p + " at vertex " + v);
+            oldId[p] = v;
+        }
+        return new VertexReordering(newId.clone(), oldId);
+    }
+
+    public static VertexReordering compute(CSRGraph g, Strategy strategy) {
+        int[] order;
+        switch (strategy) {
+            case BFS:
+                order = bfsOrder(g);
+                break;
+            case DFS:
+                order = dfsOrder(g);
+                break;
+            case DEGREE:
+                order = degreeOrder(g);
+                break;
+            case RCM:
+                order = rcmOrder(g);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + strategy);
+        }
+        int[] newId = new int[order.length];
+        for (int p = 0; p < order.length; p++) newId[order[p]] = p;
+        return new VertexReordering(newId, order);
+    }
+
+    public static Strategy strategyForName(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "bfs":
+                return Strategy.BFS;
+            case "dfs":
+                return Strategy.DFS;
+            case "degree":
+                return Strategy.DEGREE;
+            case "rcm":
+                return Strategy.RCM;
+            default:
+                throw new IllegalArgumentException("Unknown reordering strategy: " + name
+                        + " (expected bfs, dfs, degree or rcm)");
+        }
+    }
+
+    public int vertexCount() {
+        return newId.length;
+    }
+
+    public int toPermuted(int v) {
+        return newId[v];
+    }
+
+    public int toOriginal(int p) {
+        return oldId[p];
+    }
+
+    // Row p of the result is row oldId[p] of g with its targets relabelled; edge order within a row is kept.
+    public CSRGraph permute(CSRGraph g) {
+        int n = g.numVertices();
+        if (n != newId.length)
+            throw new IllegalArgumentException("Reordering is for " + newId.length + " vertices, graph has " + n);
+        int[] offsets = new int[n + 1];
+        for (int p = 0; p < n; p++) offsets[p + 1] = offsets[p] + g.outDegree(oldId[p]);
+        int[] targets = new int[g.numEdges()];
+        double[] weights = new double[g.numEdges()];
+        for (int p = 0; p < n; p++) {
+            int u = oldId[p];
+            int k = offsets[p];
+            for (int e = g.begin(u); e < g.end(u); e++, k++) {
+                targets[k] = newId[g.target(e)];
+                weights[k] = g.weight(e);
+            }
+        }
+        return CSRGraph.fromArrays(n, offsets, targets, weights);
+    }
+
+    public SCCResult toOriginal(SCCResult permuted) {
+        int n = permuted.vertexCount();
+        int c = permuted.componentCount();
+        int[] componentOf = new int[n];
+        for (int v = 0; v < n; v++) componentOf[v] = permuted.componentOf(newId[v]);
+        int[] memberOffsets = new int[c + 1];
+        for (int k = 0; k < c; k++) memberOffsets[k + 1] = permuted.memberEnd(k);
+        int[] members = new int[n];
+        for (int i = 0; i < n; i++) members[i] = oldId[permuted.member(i)];
+        return new SCCResult(componentOf, memberOffsets, members);
+    }
+
+    // Per-vertex values such as distances, indexed by permuted id, re-indexed by original id.
+    public double[] toOriginal(double[] permuted) {
+        double[] values = new double[permuted.length];
+        for (int v = 0; v < values.length; v++) values[v] = permuted[newId[v]];
+        return values;
+    }
+
+    // A sequence of permuted vertex ids, such as a vertex-level topological order, in original ids.
+    public int[] toOriginalIds(int[] permutedIds) {
+        int[] ids = new int[permutedIds.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = oldId[permutedIds[i]];
+        return ids;
+    }
+
+    private static int[] bfsOrder(CSRGraph g) {
+        int n = g.numVertices();
+        boolean[] seen = new boolean[n];
+        int[] order = new int[n];
+        int tail = 0;
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail) {
+                int u = order[head++];
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int v = g.target(e);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] dfsOrder(CSRGraph g) {
+        int n = g.numVertices();
+        boolean[] seen = new boolean[n];
+        int[] order = new int[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int k = 0;
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            order[k++] = root;
+            int sp = 0;
+            stack[sp++] = root;
+            cursor[root] = g.begin(root);
+            while (sp > 0) {
+                int u = stack[sp - 1];
+                if (cursor[u] == g.end(u)) {
+                    sp--;
+                    continue;
+                }
+                int v = g.target(cursor[u]++);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    order[k++] = v;
+                    cursor[v] = g.begin(v);
+                    stack[sp++] = v;
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] totalDegrees(CSRGraph g) {
+        int n = g.numVertices();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            degree[u] += g.outDegree(u);
+            for (int e = g.begin(u); e < g.end(u); e++) degree[g.target(e)]++;
+        }
+        return degree;
+    }
+
+    // Counting sort of the vertices by degree, stable in id.
+    private static int[] sortByDegree(int[] degree, boolean descending) {
+        int n = degree.length;
+        int max = 0;
+        for (int d : degree) max = Math.max(max, d);
+        int[] start = new int[max + 2];
+        for (int d : degree) start[(descending ? max - d : d) + 1]++;
+        for (int i = 0; i <= max; i++) start[i + 1] += start[i];
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) order[start[descending ? max - degree[v] : degree[v]]++] = v;
+        return order;
+    }
+
+    private static int[] degreeOrder(CSRGraph g) {
+        return sortByDegree(totalDegrees(g), true);
+    }
+
+    // Cuthill-McKee appends each dequeued vertex's unvisited neighbors by increasing
+    // degree, then the whole order is reversed.
+    private static int[] rcmOrder(CSRGraph g) {
+        int n = g.numVertices();
+        CSRGraph rev = g.reverse();
+        int[] degree = totalDegrees(g);
+        boolean[] seen = new boolean[n];
+        int[] order = new int[n];
+        long[] batch = new long[16];
+        int tail = 0;
+        for (int root : sortByDegree(degree, false)) {
+            if (seen[root]) continue;
+            seen[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail) {
+                int u = order[head++];
+                int size = 0;
+                for (int side = 0; side < 2; side++) {
+                    CSRGraph adj = side == 0 ? g : rev;
+                    for (int e = adj.begin(u); e < adj.end(u); e++) {
+                        int v = adj.target(e);
+                        if (seen[v]) continue;
+                        seen[v] = true;
+                        if (size == batch.length) batch = Arrays.copyOf(batch, 2 * size);
+                        batch[size++] = ((long) degree[v] << 32) | v;
+                    }
+                }
+                Arrays.sort(batch, 0, size);
+                for (int i = 0; i < size; i++) order[tail++] = (int) batch[i];
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+}
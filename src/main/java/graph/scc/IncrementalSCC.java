@@ -0,0 +1,361 @@
+package graph.scc;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+
+import java.util.*;
+
+/**
+ * SCC partition and condensation of a graph that only gains edges. It is seeded
+ * from a full decomposition and keeps a topological order of the live
+ * components. An edge u -> v that goes backwards in that order is handled the
+ * Pearce-Kelly way: a forward search from v and a backward search from u, both
+ * limited to the components ranked between them. If the forward search reaches
+ * u, the components found by both searches close a cycle and are merged
+ * (union-find over the seed's component ids); otherwise only the visited
+ * components are reordered. Edges that agree with the order cost O(1).
+ *
+ * The vertex set is fixed, and components are never split. Condensation
+ * adjacency is kept in growable per-component int arrays in both directions,
+ * without duplicate entries.
+ */
+public class IncrementalSCC {
+
+    private final int n;
+    private final int[] seedComp;
+    private final int[] parent;
+    private final int[] ord;
+    private final int[] compAt;
+    private final int[][] out;
+    private final int[] outDeg;
+    private final int[][] in;
+    private final int[] inDeg;
+    private int componentCount;
+
+    private final int[] fwdMark;
+    private final int[] bwdMark;
+    private int epoch;
+    private final int[] stack;
+    private final int[] fwd;
+    private final int[] bwd;
+    private final int[] positions;
+    private final int[] seen;
+    private int seenEpoch;
+
+    public IncrementalSCC(CSRGraph g) {
+        this(g, new Tarjan().decompose(g, NoOpMetrics.INSTANCE));
+    }
+
+    public IncrementalSCC(CSRGraph g, SCCResult seed) {
+        n = g.numVertices();
+        if (seed.vertexCount() != n)
+            throw new IllegalArgumentException("Seed covers " + seed.vertexCount() + " vertices, graph has " + n);
+        int c = seed.componentCount();
+        seedComp = seed.componentOfArray().clone();
+        parent = new int[c];
+        out = new int[c][];
+        in = new int[c][];
+        outDeg = new int[c];
+        inDeg = new int[c];
+        for (int i = 0; i < c; i++) {
+            parent[i] = i;
+            out[i] = new int[2];
+            in[i] = new int[2];
+        }
+        // The seed lists each component's members contiguously, so one stamp per
+        // source component is enough to drop parallel inter-component edges.
+        seen = new int[c];
+        for (int cu = 0; cu < c; cu++) {
+            seenEpoch++;
+            for (int i = seed.memberStart(cu); i < seed.memberEnd(cu); i++) {
+                int u = seed.member(i);
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int cv = seedComp[g.target(e)];
+                    if (cv == cu || seen[cv] == seenEpoch) continue;
+                    seen[cv] = seenEpoch;
+                    link(cu, cv);
+                }
+            }
+        }
+        componentCount = c;
+
+        ord = new int[c];
+        compAt = new int[c];
+        int[] indegree = new int[c];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < c; i++) {
+            indegree[i] = inDeg[i];
+            if (indegree[i] == 0) compAt[tail++] = i;
+        }
+        while (head < tail) {
+            int x = compAt[head];
+            ord[x] = head++;
+            for (int k = 0; k < outDeg[x]; k++)
+                if (--indegree[out[x][k]] == 0) compAt[tail++] = out[x][k];
+        }
+        if (tail < c)
+            throw new IllegalArgumentException("Seed is not an SCC decomposition: its condensation has a cycle");
+
+        fwdMark = new int[c];
+        bwdMark = new int[c];
+        stack = new int[c];
+        fwd = new int[c];
+        bwd = new int[c];
+        positions = new int[c];
+    }
+
+    public int vertexCount() {
+        return n;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return find(seedComp[u]) == find(seedComp[v]);
+    }
+
+    // Inserts u -> v; returns how many components disappeared through the merge it caused (0 if none).
+    public int insertEdge(int u, int v) {
+        return insertEdges(new int[]{u}, new int[]{v}, NoOpMetrics.INSTANCE);
+    }
+
+    // Inserts from[i] -> to[i] in order; returns how many components disappeared through merges.
+    public int insertEdges(int[] from, int[] to, Metrics metrics) {
+        if (from.length != to.length)
+            throw new IllegalArgumentException("from and to must have the same length");
+        int before = componentCount;
+        long visits = 0;
+        long reorders = 0;
+        for (int i = 0; i < from.length; i++) {
+            int u = from[i];
+            int v = to[i];
+            if (u < 0 || u >= n || v < 0 || v >= n)
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range for n = " + n);
+            int cu = find(seedComp[u]);
+            int cv = find(seedComp[v]);
+            if (cu == cv || hasLink(cu, cv)) continue;
+            link(cu, cv);
+            if (ord[cu] < ord[cv]) continue;
+            visits += restore(cu, cv);
+            reorders++;
+        }
+        metrics.add(metrics.counterHandle("incremental_visits"), visits);
+        metrics.add(metrics.counterHandle("reorders"), reorders);
+        metrics.add(metrics.counterHandle("merges"), before - componentCount);
+        return before - componentCount;
+    }
+
+    // Edge cu -> cv was just added with ord[cu] > ord[cv]. Returns the number of components visited.
+    private int restore(int cu, int cv) {
+        int lb = ord[cv];
+        int ub = ord[cu];
+        epoch++;
+
+        int nf = 0;
+        int sp = 0;
+        fwdMark[cv] = epoch;
+        stack[sp++] = cv;
+        while (sp > 0) {
+            int x = stack[--sp];
+            fwd[nf++] = x;
+            for (int k = 0; k < outDeg[x]; k++) {
+                int y = out[x][k];
+                if (ord[y] <= ub && fwdMark[y] != epoch) {
+                    fwdMark[y] = epoch;
+                    stack[sp++] = y;
+                }
+            }
+        }
+
+        int nb = 0;
+        bwdMark[cu] = epoch;
+        stack[sp++] = cu;
+        while (sp > 0) {
+            int x = stack[--sp];
+            bwd[nb++] = x;
+            for (int k = 0; k < inDeg[x]; k++) {
+                int y = in[x][k];
+                if (ord[y] >= lb && bwdMark[y] != epoch) {
+                    bwdMark[y] = epoch;
+                    stack[sp++] = y;
+                }
+            }
+        }
+
+        // Pool the positions of every visited component; the components in both
+        // searches (all of them on a cycle through the new edge) share one slot.
+        int np = 0;
+        for (int i = 0; i < nf; i++) positions[np++] = ord[fwd[i]];
+        for (int i = 0; i < nb; i++)
+            if (fwdMark[bwd[i]] != epoch) positions[np++] = ord[bwd[i]];
+        Arrays.sort(positions, 0, np);
+
+        int merged = fwdMark[cu] == epoch ? merge(fwd, nf) : -1;
+        int nbOnly = keepOrdered(bwd, nb, fwdMark);
+        int nfOnly = keepOrdered(fwd, nf, bwdMark);
+
+        // Backward-only components take the lowest slots and forward-only ones the
+        // highest, so neither moves past an unvisited neighbour; the merged
+        // component sits between them and the slots it freed become holes.
+        int p = 0;
+        for (int i = 0; i < nbOnly; i++) place(bwd[i], positions[p++]);
+        if (merged >= 0) place(merged, positions[p++]);
+        while (p < np - nfOnly) compAt[positions[p++]] = -1;
+        for (int i = 0; i < nfOnly; i++) place(fwd[i], positions[p++]);
+        return nf + nb;
+    }
+
+    // Drops the entries stamped in the other search and sorts the rest by current position.
+    private int keepOrdered(int[] list, int len, int[] otherMark) {
+        int k = 0;
+        for (int i = 0; i < len; i++)
+            if (otherMark[list[i]] != epoch) list[k++] = ord[list[i]];
+        Arrays.sort(list, 0, k);
+        for (int i = 0; i < k; i++) list[i] = compAt[list[i]];
+        return k;
+    }
+
+    private void place(int c, int position) {
+        ord[c] = position;
+        compAt[position] = c;
+    }
+
+    // Merges the components of list[0 .. len) stamped by both searches; returns the surviving root.
+    // Neighbours already adjacent to the root are stamped so the root's rows stay duplicate-free.
+    private int merge(int[] list, int len) {
+        int root = -1;
+        for (int i = 0; i < len; i++) {
+            int c = list[i];
+            if (bwdMark[c] != epoch) continue;
+            if (root < 0 || outDeg[c] + inDeg[c] > outDeg[root] + inDeg[root]) root = c;
+        }
+
+        int outStamp = ++seenEpoch;
+        for (int k = 0; k < outDeg[root]; k++) seen[out[root][k]] = outStamp;
+        for (int i = 0; i < len; i++) {
+            int c = list[i];
+            if (c == root || bwdMark[c] != epoch) continue;
+            for (int k = 0; k < outDeg[c]; k++) {
+                int t = out[c][k];
+                inDeg[t] -= removeOne(in[t], inDeg[t], c) ? 1 : 0;
+                if (onCycle(t) || seen[t] == outStamp) continue;
+                seen[t] = outStamp;
+                link(root, t);
+            }
+        }
+        int inStamp = ++seenEpoch;
+        for (int k = 0; k < inDeg[root]; k++) seen[in[root][k]] = inStamp;
+        for (int i = 0; i < len; i++) {
+            int c = list[i];
+            if (c == root || bwdMark[c] != epoch) continue;
+            parent[c] = root;
+            componentCount--;
+            for (int k = 0; k < inDeg[c]; k++) {
+                int s = in[c][k];
+                outDeg[s] -= removeOne(out[s], outDeg[s], c) ? 1 : 0;
+                if (onCycle(s) || seen[s] == inStamp) continue;
+                seen[s] = inStamp;
+                link(s, root);
+            }
+            out[c] = new int[2];
+            in[c] = new int[2];
+            outDeg[c] = 0;
+            inDeg[c] = 0;
+        }
+        outDeg[root] = dropOnCycle(out[root], outDeg[root]);
+        inDeg[root] = dropOnCycle(in[root], inDeg[root]);
+        return root;
+    }
+
+    private int dropOnCycle(int[] row, int len) {
+        int k = 0;
+        for (int i = 0; i < len; i++)
+            if (!onCycle(row[i])) row[k++] = row[i];
+        return k;
+    }
+
+    // Scans the shorter of the two rows.
+    private boolean hasLink(int cu, int cv) {
+        int[] row = outDeg[cu] <= inDeg[cv] ? out[cu] : in[cv];
+        int len = Math.min(outDeg[cu], inDeg[cv]);
+        int target = outDeg[cu] <= inDeg[cv] ? cv : cu;
+        for (int i = 0; i < len; i++)
+            if (row[i] == target) return true;
+        return false;
+    }
+
+    private void link(int cu, int cv) {
+        out[cu] = append(out[cu], outDeg[cu]++, cv);
+        in[cv] = append(in[cv], inDeg[cv]++, cu);
+    }
+
+    private static int[] append(int[] a, int index, int value) {
+        if (index == a.length) a = Arrays.copyOf(a, a.length * 2);
+        a[index] = value;
+        return a;
+    }
+
+    private static boolean removeOne(int[] a, int len, int value) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] == value) {
+                a[i] = a[len - 1];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean onCycle(int c) {
+        return fwdMark[c] == epoch && bwdMark[c] == epoch;
+    }
+
+    private int find(int c) {
+        while (parent[c] != c) {
+            parent[c] = parent[parent[c]];
+            c = parent[c];
+        }
+        return c;
+    }
+
+    // Current partition, with component ids in the maintained topological order.
+    public SCCResult snapshot() {
+        int[] dense = denseIds();
+        int[] componentOf = new int[n];
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = dense[find(seedComp[v])];
+            memberOffsets[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) memberOffsets[c + 1] += memberOffsets[c];
+        int[] cursor = Arrays.copyOf(memberOffsets, componentCount);
+        int[] members = new int[n];
+        for (int v = 0; v < n; v++) members[cursor[componentOf[v]]++] = v;
+        return new SCCResult(componentOf, memberOffsets, members);
+    }
+
+    // Condensation DAG numbered like snapshot(), with unit weights and ascending targets.
+    public CSRGraph condensation() {
+        int[] dense = denseIds();
+        CSRGraph.Builder b = new CSRGraph.Builder(componentCount);
+        for (int pos = 0; pos < compAt.length; pos++) {
+            int c = compAt[pos];
+            if (c < 0) continue;
+            int[] targets = new int[outDeg[c]];
+            for (int k = 0; k < outDeg[c]; k++) targets[k] = dense[out[c][k]];
+            Arrays.sort(targets);
+            for (int t : targets) b.addEdge(dense[c], t);
+        }
+        return b.build();
+    }
+
+    private int[] denseIds() {
+        int[] dense = new int[compAt.length];
+        int k = 0;
+        for (int pos = 0; pos < compAt.length; pos++)
+            if (compAt[pos] >= 0) dense[compAt[pos]] = k++;
+        return dense;
+    }
+}
@@ -1,34 +1,20 @@
 package graph.scc;
 
-import com.google.gson.*;
+import graph.core.CSRGraph;
+import graph.io.GraphLoader;
 import graph.metrics.*;
 
 import java.io.*;
 import java.util.*;
 
-public class Kosaraju {
+public class Kosaraju implements SCCEngine {
 
     public static void main(String[] args) throws IOException {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        Reader reader = new FileReader("src/main/resources/tasks.json");
-        JsonObject data = gson.fromJson(reader, JsonObject.class);
-
-        int n = data.get("n").getAsInt();
-        JsonArray edges = data.getAsJsonArray("edges");
-
-        List<List<Integer>> adj = new ArrayList<>();
-        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
-
-        for (JsonElement e : edges) {
-            JsonObject obj = e.getAsJsonObject();
-            int u = obj.get("u").getAsInt();
-            int v = obj.get("v").getAsInt();
-            adj.get(u).add(v);
-        }
+        CSRGraph graph = GraphLoader.load("src/main/resources/tasks.json").graph();
 
         AlgorithmMetrics metrics = new AlgorithmMetrics();
         metrics.startTimer();
-        List<List<Integer>> sccs = findSCCs(adj, n, metrics);
+        SCCResult result = new Kosaraju().decompose(graph, metrics);
         metrics.stopTimer();
 
         System.out.println("========= Kosaraju’s SCC Algorithm =========");
@@ -38,100 +24,143 @@ public class Kosaraju {
         System.out.println("--------------------------------------------");
 
         System.out.println("Strongly Connected Components (SCCs):");
+        List<List<Integer>> sccs = result.components();
         int id = 0;
         for (List<Integer> comp : sccs) {
             System.out.println("SCC " + (++id) + ": " + comp + " (size = " + comp.size() + ")");
         }
 
-        List<Set<Integer>> dag = buildCondensationGraph(adj, sccs);
+        CSRGraph dag = buildCondensationGraph(graph, result);
 
         System.out.println("\nCondensation Graph (DAG):");
-        for (int i = 0; i < dag.size(); i++) {
-            System.out.println("Component " + i + " -> " + dag.get(i));
+        for (int c = 0; c < dag.numVertices(); c++) {
+            List<Integer> out = new ArrayList<>();
+            for (int e = dag.begin(c); e < dag.end(c); e++) out.add(dag.target(e));
+            System.out.println("Component " + c + " -> " + out);
         }
     }
 
-    public static List<List<Integer>> findSCCs(List<List<Integer>> adj, int n, Metrics metrics) {
+    @Override
+    public String name() {
+        return "Kosaraju";
+    }
+
+    @Override
+    public SCCResult decompose(CSRGraph g, Metrics metrics) {
+        int n = g.numVertices();
         boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] order = new int[n];
+        int orderSize = 0;
 
         for (int i = 0; i < n; i++) {
             if (!visited[i]) {
-                dfsFillOrder(i, visited, stack, adj, metrics);
-            }
-        }
-
-        List<List<Integer>> rev = new ArrayList<>();
-        for (int i = 0; i < n; i++) rev.add(new ArrayList<>());
-        for (int u = 0; u < n; u++) {
-            for (int v : adj.get(u)) {
-                rev.get(v).add(u);
+                orderSize = dfsFillOrder(i, visited, stack, cursor, order, orderSize, g);
             }
         }
 
+        CSRGraph rev = g.reverse();
         Arrays.fill(visited, false);
-        List<List<Integer>> sccs = new ArrayList<>();
-
-        while (!stack.isEmpty()) {
-            int v = stack.pop();
+        int[] componentOf = new int[n];
+        int[] memberOffsets = new int[n + 1];
+        int[] members = new int[n];
+        int count = 0;
+        int size = 0;
+
+        for (int i = orderSize - 1; i >= 0; i--) {
+            int v = order[i];
             if (!visited[v]) {
-                List<Integer> comp = new ArrayList<>();
-                dfsCollect(v, visited, rev, comp, metrics);
-                sccs.add(comp);
+                size = dfsCollect(v, count, visited, stack, cursor, rev, componentOf, members, size);
+                memberOffsets[++count] = size;
             }
         }
-        return sccs;
+
+        // Each pass visits every vertex and scans every edge exactly once.
+        metrics.add(metrics.counterHandle("DFS_visits"), 2L * n);
+        metrics.add(metrics.counterHandle("DFS_edges"), 2L * g.numEdges());
+        return new SCCResult(componentOf, Arrays.copyOf(memberOffsets, count + 1), members);
     }
 
-    private static void dfsFillOrder(int v, boolean[] visited, Stack<Integer> stack,
-                                     List<List<Integer>> adj, Metrics metrics) {
-        visited[v] = true;
-        metrics.incrementCounter("DFS_visits");
-        for (int u : adj.get(v)) {
-            metrics.incrementCounter("DFS_edges");
-            if (!visited[u]) {
-                dfsFillOrder(u, visited, stack, adj, metrics);
-            }
-        }
-        stack.push(v);
+    public static List<List<Integer>> findSCCs(List<List<Integer>> adj, int n, Metrics metrics) {
+        return findSCCs(CSRGraph.fromAdjacency(adj, n), metrics);
+    }
+
+    public static List<List<Integer>> findSCCs(CSRGraph g, Metrics metrics) {
+        return new Kosaraju().decompose(g, metrics).components();
     }
 
-    private static void dfsCollect(int v, boolean[] visited, List<List<Integer>> rev,
-                                   List<Integer> comp, Metrics metrics) {
-        visited[v] = true;
-        comp.add(v);
-        metrics.incrementCounter("DFS_visits");
-        for (int u : rev.get(v)) {
-            metrics.incrementCounter("DFS_edges");
-            if (!visited[u]) {
-                dfsCollect(u, visited, rev, comp, metrics);
+    // Explicit-stack DFS; cursor[v] is the next out-edge of v to examine. Appends
+    // vertices to order in finishing sequence and returns the new order size.
+    private static int dfsFillOrder(int root, boolean[] visited, int[] stack, int[] cursor,
+                                    int[] order, int orderSize, CSRGraph g) {
+        int top = 0;
+        stack[top++] = root;
+        visited[root] = true;
+        cursor[root] = g.begin(root);
+
+        while (top > 0) {
+            int v = stack[top - 1];
+            if (cursor[v] < g.end(v)) {
+                int u = g.target(cursor[v]++);
+                if (!visited[u]) {
+                    visited[u] = true;
+                    cursor[u] = g.begin(u);
+                    stack[top++] = u;
+                }
+            } else {
+                top--;
+                order[orderSize++] = v;
             }
         }
+        return orderSize;
     }
 
-    public static List<Set<Integer>> buildCondensationGraph(List<List<Integer>> adj, List<List<Integer>> sccs) {
-        int m = sccs.size();
-        List<Set<Integer>> dag = new ArrayList<>();
-        for (int i = 0; i < m; i++) dag.add(new HashSet<>());
-
-        Map<Integer, Integer> compIndex = new HashMap<>();
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int v : sccs.get(i)) {
-                compIndex.put(v, i);
+    // Collects the component of root in the reverse graph into members starting at size;
+    // returns the new member count.
+    private static int dfsCollect(int root, int comp, boolean[] visited, int[] stack, int[] cursor,
+                                  CSRGraph rev, int[] componentOf, int[] members, int size) {
+        int top = 0;
+        stack[top++] = root;
+        visited[root] = true;
+        cursor[root] = rev.begin(root);
+        componentOf[root] = comp;
+        members[size++] = root;
+
+        while (top > 0) {
+            int v = stack[top - 1];
+            if (cursor[v] < rev.end(v)) {
+                int u = rev.target(cursor[v]++);
+                if (!visited[u]) {
+                    visited[u] = true;
+                    cursor[u] = rev.begin(u);
+                    componentOf[u] = comp;
+                    members[size++] = u;
+                    stack[top++] = u;
+                }
+            } else {
+                top--;
             }
         }
+        return size;
+    }
 
+    public static List<Set<Integer>> buildCondensationGraph(List<List<Integer>> adj, List<List<Integer>> sccs) {
+        return buildCondensationGraph(CSRGraph.fromAdjacency(adj, adj.size()), sccs);
+    }
 
-        for (int u = 0; u < adj.size(); u++) {
-            for (int v : adj.get(u)) {
-                int cu = compIndex.get(u);
-                int cv = compIndex.get(v);
-                if (cu != cv) {
-                    dag.get(cu).add(cv);
-                }
-            }
+    public static List<Set<Integer>> buildCondensationGraph(CSRGraph g, List<List<Integer>> sccs) {
+        CSRGraph dag = buildCondensationGraph(g, SCCResult.fromComponents(sccs, g.numVertices()));
+        List<Set<Integer>> sets = new ArrayList<>(dag.numVertices());
+        for (int c = 0; c < dag.numVertices(); c++) {
+            Set<Integer> out = new HashSet<>();
+            for (int e = dag.begin(c); e < dag.end(c); e++) out.add(dag.target(e));
+            sets.add(out);
         }
+        return sets;
+    }
 
-        return dag;
+    public static CSRGraph buildCondensationGraph(CSRGraph g, SCCResult scc) {
+        return Condensation.build(g, scc, Condensation.WeightAggregation.MIN);
     }
 }
@@ -0,0 +1,406 @@
+package graph.scc;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Parallel SCC decomposition by forward-backward (FW-BW) coloring on a
+ * ForkJoinPool. Vertices with no remaining in- or out-edges are trimmed first
+ * as singleton components. Each remaining subproblem is a color class: a pivot's
+ * forward and backward closures within the class intersect in one SCC, and the
+ * three leftover parts become independent subproblems. Small subproblems are
+ * finished with a sequential Tarjan restricted to their color.
+ *
+ * The partition matches the sequential engines; components are renumbered at
+ * the end so that they appear in topological order of the condensation.
+ */
+public class ParallelSCC implements SCCEngine {
+
+    private static final int SEQUENTIAL_THRESHOLD = 4_096;
+    private static final int PARALLEL_FRONTIER = 8_192;
+    private static final int REMOVED = -1;
+
+    private final int parallelism;
+
+    public ParallelSCC() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelSCC(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public String name() {
+        return "Parallel FW-BW (p=" + parallelism + ")";
+    }
+
+    @Override
+    public SCCResult decompose(CSRGraph g, Metrics metrics) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new Run(g, pool).execute(metrics);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static List<List<Integer>> findSCCs(CSRGraph g, int parallelism, Metrics metrics) {
+        return new ParallelSCC(parallelism).decompose(g, metrics).components();
+    }
+
+    private static final class Run {
+        private final CSRGraph g;
+        private final CSRGraph rev;
+        private final ForkJoinPool pool;
+        private final int n;
+        private final AtomicIntegerArray color;
+        private final int[] compOf;
+        private final int[] index;
+        private final int[] low;
+        private final int[] cursor;
+        private final AtomicInteger nextColor = new AtomicInteger();
+        private final AtomicInteger nextComp = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger pivots = new AtomicInteger();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Run(CSRGraph g, ForkJoinPool pool) {
+            this.g = g;
+            this.rev = g.reverse();
+            this.pool = pool;
+            this.n = g.numVertices();
+            this.color = new AtomicIntegerArray(n);
+            this.compOf = new int[n];
+            this.index = new int[n];
+            this.low = new int[n];
+            this.cursor = new int[n];
+            Arrays.fill(compOf, -1);
+            Arrays.fill(index, -1);
+        }
+
+        SCCResult execute(Metrics metrics) {
+            int trimmed = trim();
+            int[] remaining = new int[n - trimmed];
+            int k = 0;
+            for (int v = 0; v < n; v++)
+                if (compOf[v] == -1) remaining[k++] = v;
+
+            if (remaining.length > 0) {
+                pending.set(1);
+                pool.execute(new Subproblem(remaining, 0));
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for SCC workers", e);
+                }
+                Throwable t = error.get();
+                if (t != null) throw new IllegalStateException("Parallel SCC worker failed", t);
+            }
+
+            metrics.add(metrics.counterHandle("trimmed"), trimmed);
+            metrics.add(metrics.counterHandle("pivots"), pivots.get());
+            return componentsInTopologicalOrder();
+        }
+
+        // Repeatedly peels vertices whose live in- or out-degree is zero; each is its own SCC.
+        private int trim() {
+            int[] in = new int[n];
+            int[] out = new int[n];
+            int[] queue = new int[n];
+            int head = 0, tail = 0;
+            for (int v = 0; v < n; v++) {
+                in[v] = rev.outDegree(v);
+                out[v] = g.outDegree(v);
+                if (in[v] == 0 || out[v] == 0) {
+                    compOf[v] = nextComp.getAndIncrement();
+                    queue[tail++] = v;
+                }
+            }
+            while (head < tail) {
+                int v = queue[head++];
+                color.set(v, REMOVED);
+                for (int e = g.begin(v); e < g.end(v); e++) {
+                    int w = g.target(e);
+                    if (compOf[w] == -1 && --in[w] == 0) {
+                        compOf[w] = nextComp.getAndIncrement();
+                        queue[tail++] = w;
+                    }
+                }
+                for (int e = rev.begin(v); e < rev.end(v); e++) {
+                    int w = rev.target(e);
+                    if (compOf[w] == -1 && --out[w] == 0) {
+                        compOf[w] = nextComp.getAndIncrement();
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            return tail;
+        }
+
+        private void spawn(int[] verts, int c) {
+            if (verts.length == 0) return;
+            if (verts.length == 1) {
+                compOf[verts[0]] = nextComp.getAndIncrement();
+                color.set(verts[0], REMOVED);
+                return;
+            }
+            pending.incrementAndGet();
+            new Subproblem(verts, c).fork();
+        }
+
+        private final class Subproblem extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] verts;
+            private final int c;
+
+            Subproblem(int[] verts, int c) {
+                this.verts = verts;
+                this.c = c;
+            }
+
+            @Override
+            protected void compute() {
+                try {
+                    if (verts.length <= SEQUENTIAL_THRESHOLD) tarjan(verts, c);
+                    else forwardBackward(verts, c);
+                } catch (Throwable t) {
+                    error.compareAndSet(null, t);
+                } finally {
+                    if (pending.decrementAndGet() == 0) done.countDown();
+                }
+            }
+        }
+
+        private void forwardBackward(int[] verts, int c) {
+            int pivot = choosePivot(verts);
+            pivots.incrementAndGet();
+            int fw = nextColor.incrementAndGet();
+            int bw = nextColor.incrementAndGet();
+            int scc = nextColor.incrementAndGet();
+            int[] queue = new int[verts.length];
+
+            color.set(pivot, fw);
+            reach(g, pivot, queue, c, fw, -2, -2);
+            color.set(pivot, scc);
+            reach(rev, pivot, queue, fw, scc, c, bw);
+
+            int comp = nextComp.getAndIncrement();
+            int fwCount = 0, bwCount = 0, restCount = 0;
+            for (int v : verts) {
+                int col = color.get(v);
+                if (col == scc) {
+                    compOf[v] = comp;
+                    color.set(v, REMOVED);
+                } else if (col == fw) fwCount++;
+                else if (col == bw) bwCount++;
+                else restCount++;
+            }
+
+            int[] fwRest = new int[fwCount];
+            int[] bwRest = new int[bwCount];
+            int[] rest = new int[restCount];
+            fwCount = bwCount = restCount = 0;
+            for (int v : verts) {
+                int col = color.get(v);
+                if (col == fw) fwRest[fwCount++] = v;
+                else if (col == bw) bwRest[bwCount++] = v;
+                else if (col == c) rest[restCount++] = v;
+            }
+            spawn(fwRest, fw);
+            spawn(bwRest, bw);
+            spawn(rest, c);
+        }
+
+        private int choosePivot(int[] verts) {
+            int best = verts[0];
+            long bestScore = -1;
+            for (int i = 0; i < Math.min(verts.length, 64); i++) {
+                int v = verts[i];
+                long score = (long) (g.outDegree(v) + 1) * (rev.outDegree(v) + 1);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        // Level-synchronous BFS from start over dir. A neighbor joins the frontier when its
+        // color is atomically moved fromA -> toA, or fromB -> toB. Large levels are split
+        // across the pool.
+        private void reach(CSRGraph dir, int start, int[] queue,
+                           int fromA, int toA, int fromB, int toB) {
+            int levelStart = 0, tail = 0;
+            queue[tail++] = start;
+            while (levelStart < tail) {
+                int levelEnd = tail;
+                if (levelEnd - levelStart < PARALLEL_FRONTIER) {
+                    for (int i = levelStart; i < levelEnd; i++)
+                        tail = expand(dir, queue[i], queue, tail, fromA, toA, fromB, toB);
+                } else {
+                    List<Expand> chunks = new ArrayList<>();
+                    for (int lo = levelStart; lo < levelEnd; lo += PARALLEL_FRONTIER)
+                        chunks.add(new Expand(dir, queue, lo, Math.min(levelEnd, lo + PARALLEL_FRONTIER),
+                                fromA, toA, fromB, toB));
+                    ForkJoinTask.invokeAll(chunks);
+                    for (Expand chunk : chunks) {
+                        System.arraycopy(chunk.found, 0, queue, tail, chunk.size);
+                        tail += chunk.size;
+                    }
+                }
+                levelStart = levelEnd;
+            }
+        }
+
+        private int expand(CSRGraph dir, int v, int[] out, int size,
+                           int fromA, int toA, int fromB, int toB) {
+            for (int e = dir.begin(v); e < dir.end(v); e++) {
+                int w = dir.target(e);
+                if (color.compareAndSet(w, fromA, toA)
+                        || (fromB != -2 && color.compareAndSet(w, fromB, toB))) {
+                    out[size++] = w;
+                }
+            }
+            return size;
+        }
+
+        private final class Expand extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final CSRGraph dir;
+            private final int[] frontier;
+            private final int lo, hi, fromA, toA, fromB, toB;
+            private int[] found = new int[16];
+            private int size;
+
+            Expand(CSRGraph dir, int[] frontier, int lo, int hi,
+                   int fromA, int toA, int fromB, int toB) {
+                this.dir = dir;
+                this.frontier = frontier;
+                this.lo = lo;
+                this.hi = hi;
+                this.fromA = fromA;
+                this.toA = toA;
+                this.fromB = fromB;
+                this.toB = toB;
+            }
+
+            @Override
+            protected void compute() {
+                for (int i = lo; i < hi; i++) {
+                    int v = frontier[i];
+                    int need = size + dir.outDegree(v);
+                    if (need > found.length) found = Arrays.copyOf(found, Math.max(need, found.length * 2));
+                    size = expand(dir, v, found, size, fromA, toA, fromB, toB);
+                }
+            }
+        }
+
+        // Iterative Tarjan over the subgraph induced by color c; edges leaving the color are ignored.
+        private void tarjan(int[] verts, int c) {
+            int[] sccStack = new int[verts.length];
+            int[] callStack = new int[verts.length];
+            int nextIndex = 0;
+            int sp = 0;
+
+            for (int root : verts) {
+                if (index[root] != -1) continue;
+                int cp = 0;
+                index[root] = low[root] = nextIndex++;
+                cursor[root] = g.begin(root);
+                sccStack[sp++] = root;
+                callStack[cp++] = root;
+
+                while (cp > 0) {
+                    int v = callStack[cp - 1];
+                    if (cursor[v] < g.end(v)) {
+                        int w = g.target(cursor[v]++);
+                        if (color.get(w) != c) continue;
+                        if (index[w] == -1) {
+                            index[w] = low[w] = nextIndex++;
+                            cursor[w] = g.begin(w);
+                            sccStack[sp++] = w;
+                            callStack[cp++] = w;
+                        } else if (compOf[w] == -1 && index[w] < low[v]) {
+                            low[v] = index[w];
+                        }
+                        continue;
+                    }
+
+                    cp--;
+                    if (cp > 0) {
+                        int parent = callStack[cp - 1];
+                        if (low[v] < low[parent]) low[parent] = low[v];
+                    }
+                    if (low[v] == index[v]) {
+                        int comp = nextComp.getAndIncrement();
+                        int w;
+                        do {
+                            w = sccStack[--sp];
+                            compOf[w] = comp;
+                        } while (w != v);
+                    }
+                }
+            }
+            for (int v : verts) color.set(v, REMOVED);
+        }
+
+        // Kahn over component ids, then bucket vertices by rank (ascending vertex id within a component).
+        private SCCResult componentsInTopologicalOrder() {
+            int count = nextComp.get();
+            int[] offsets = new int[count + 1];
+            int[] inDegree = new int[count];
+            for (int u = 0; u < n; u++) {
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int cv = compOf[g.target(e)];
+                    if (compOf[u] != cv) {
+                        offsets[compOf[u] + 1]++;
+                        inDegree[cv]++;
+                    }
+                }
+            }
+            for (int i = 0; i < count; i++) offsets[i + 1] += offsets[i];
+            int[] fill = Arrays.copyOf(offsets, count);
+            int[] targets = new int[offsets[count]];
+            for (int u = 0; u < n; u++) {
+                for (int e = g.begin(u); e < g.end(u); e++) {
+                    int cv = compOf[g.target(e)];
+                    if (compOf[u] != cv) targets[fill[compOf[u]]++] = cv;
+                }
+            }
+
+            int[] rank = new int[count];
+            int[] queue = new int[count];
+            int head = 0, tail = 0;
+            for (int c = 0; c < count; c++)
+                if (inDegree[c] == 0) queue[tail++] = c;
+            while (head < tail) {
+                int c = queue[head];
+                rank[c] = head++;
+                for (int i = offsets[c]; i < offsets[c + 1]; i++)
+                    if (--inDegree[targets[i]] == 0) queue[tail++] = targets[i];
+            }
+
+            int[] memberOffsets = new int[count + 1];
+            for (int v = 0; v < n; v++) {
+                compOf[v] = rank[compOf[v]];
+                memberOffsets[compOf[v] + 1]++;
+            }
+            for (int c = 0; c < count; c++) memberOffsets[c + 1] += memberOffsets[c];
+            int[] fillMembers = Arrays.copyOf(memberOffsets, count);
+            int[] members = new int[n];
+            for (int v = 0; v < n; v++) members[fillMembers[compOf[v]]++] = v;
+            return new SCCResult(compOf, memberOffsets, members);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package graph.scc;
+
+import graph.core.CSRGraph;
+import graph.metrics.Metrics;
+
+import java.util.*;
+
+/**
+ * Strategy for strongly connected component decomposition. Implementations
+ * number components in topological order of the condensation: every edge
+ * between two components goes from a lower id to a higher one.
+ */
+public interface SCCEngine {
+
+    String name();
+
+    SCCResult decompose(CSRGraph g, Metrics metrics);
+
+    default List<List<Integer>> findComponents(CSRGraph g, Metrics metrics) {
+        return decompose(g, metrics).components();
+    }
+
+    static SCCEngine forName(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "kosaraju":
+                return new Kosaraju();
+            case "tarjan":
+                return new Tarjan();
+            case "parallel":
+                return new ParallelSCC();
+            default:
+                throw new IllegalArgumentException("Unknown SCC engine: " + name
+                        + " (expected kosaraju, tarjan or parallel)");
+        }
+    }
+}
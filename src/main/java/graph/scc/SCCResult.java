@@ -0,0 +1,85 @@
+package graph.scc;
+
+import java.util.*;
+
+/**
+ * Outcome of an SCC decomposition. componentOf maps each vertex to its component
+ * id; the members of component c are members[memberOffsets[c] .. memberOffsets[c + 1])
+ * in the order the engine discovered them. Component ids follow a topological
+ * order of the condensation.
+ */
+public final class SCCResult {
+
+    private final int[] componentOf;
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    public SCCResult(int[] componentOf, int[] memberOffsets, int[] members) {
+        if (members.length != componentOf.length || memberOffsets[memberOffsets.length - 1] != members.length)
+            throw new IllegalArgumentException("Member arrays do not cover all " + componentOf.length + " vertices");
+        this.componentOf = componentOf;
+        this.memberOffsets = memberOffsets;
+        this.members = members;
+    }
+
+    public static SCCResult fromComponents(List<List<Integer>> sccs, int n) {
+        int[] componentOf = new int[n];
+        int[] memberOffsets = new int[sccs.size() + 1];
+        int[] members = new int[n];
+        int k = 0;
+        for (int c = 0; c < sccs.size(); c++) {
+            for (int v : sccs.get(c)) {
+                componentOf[v] = c;
+                members[k++] = v;
+            }
+            memberOffsets[c + 1] = k;
+        }
+        return new SCCResult(componentOf, memberOffsets, members);
+    }
+
+    public int vertexCount() {
+        return componentOf.length;
+    }
+
+    public int componentCount() {
+        return memberOffsets.length - 1;
+    }
+
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    public int[] componentOfArray() {
+        return componentOf;
+    }
+
+    public int componentSize(int c) {
+        return memberOffsets[c + 1] - memberOffsets[c];
+    }
+
+    public int memberStart(int c) {
+        return memberOffsets[c];
+    }
+
+    public int memberEnd(int c) {
+        return memberOffsets[c + 1];
+    }
+
+    public int member(int i) {
+        return members[i];
+    }
+
+    public int[] members(int c) {
+        return Arrays.copyOfRange(members, memberOffsets[c], memberOffsets[c + 1]);
+    }
+
+    public List<List<Integer>> components() {
+        List<List<Integer>> sccs = new ArrayList<>(componentCount());
+        for (int c = 0; c < componentCount(); c++) {
+            List<Integer> comp = new ArrayList<>(componentSize(c));
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) comp.add(members[i]);
+            sccs.add(comp);
+        }
+        return sccs;
+    }
+}
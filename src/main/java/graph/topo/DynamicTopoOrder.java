@@ -0,0 +1,248 @@
+package graph.topo;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+
+import java.util.*;
+
+/**
+ * Topological order of a DAG kept up to date under edge insertions and
+ * deletions (Pearce-Kelly). Deleting an edge never invalidates the order. An
+ * inserted edge u -> v with ord(u) > ord(v) triggers a forward search from v
+ * and a backward search from u, both bounded by the ranks of u and v; only the
+ * vertices they visit are renumbered. An insertion that would close a cycle is
+ * rejected and leaves the graph unchanged.
+ *
+ * Adjacency is kept in growable per-vertex int arrays in both directions.
+ */
+public class DynamicTopoOrder {
+
+    private final int n;
+    private final int[][] out;
+    private final int[] outDeg;
+    private final int[][] in;
+    private final int[] inDeg;
+    private final int[] ord;
+    private final int[] at;
+    private long edges;
+
+    private final int[] fwdMark;
+    private final int[] bwdMark;
+    private int epoch;
+    private int[] stack = new int[16];
+    private int[] fwd = new int[16];
+    private int[] bwd = new int[16];
+    private int[] pool = new int[16];
+    private long visits;
+
+    public DynamicTopoOrder(CSRGraph dag) {
+        this(dag, TopoSort.kahnOrder(dag, NoOpMetrics.INSTANCE));
+    }
+
+    public DynamicTopoOrder(CSRGraph dag, List<Integer> order) {
+        this(dag, order.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public DynamicTopoOrder(CSRGraph dag, int[] order) {
+        n = dag.numVertices();
+        if (order.length != n)
+            throw new IllegalArgumentException("Initial order covers " + order.length + " of " + n
+                    + " vertices; the graph has a cycle");
+        ord = new int[n];
+        at = order.clone();
+        Arrays.fill(ord, -1);
+        for (int i = 0; i < n; i++) {
+            int v = at[i];
+            if (v < 0 || v >= n || ord[v] >= 0)
+                throw new IllegalArgumentException("Initial order is not a permutation: vertex " + v
+                        + " at position " + i);
+            ord[v] = i;
+        }
+
+        outDeg = new int[n];
+        inDeg = new int[n];
+        out = new int[n][];
+        in = new int[n][];
+        CSRGraph reverse = dag.reverse();
+        for (int u = 0; u < n; u++) {
+            outDeg[u] = dag.outDegree(u);
+            inDeg[u] = reverse.outDegree(u);
+            out[u] = new int[Math.max(2, outDeg[u])];
+            in[u] = new int[Math.max(2, inDeg[u])];
+            for (int e = dag.begin(u), k = 0; e < dag.end(u); e++, k++) {
+                out[u][k] = dag.target(e);
+                if (ord[u] >= ord[dag.target(e)])
+                    throw new IllegalArgumentException("Edge " + u + " -> " + dag.target(e)
+                            + " contradicts the initial order");
+            }
+            for (int e = reverse.begin(u), k = 0; e < reverse.end(u); e++, k++)
+                in[u][k] = reverse.target(e);
+        }
+        edges = dag.numEdges();
+
+        fwdMark = new int[n];
+        bwdMark = new int[n];
+    }
+
+    public int numVertices() {
+        return n;
+    }
+
+    public long numEdges() {
+        return edges;
+    }
+
+    public int position(int v) {
+        return ord[v];
+    }
+
+    public int vertexAt(int position) {
+        return at[position];
+    }
+
+    public boolean precedes(int u, int v) {
+        return ord[u] < ord[v];
+    }
+
+    public int[] order() {
+        return at.clone();
+    }
+
+    // Vertices visited by the bounded searches since construction.
+    public long visits() {
+        return visits;
+    }
+
+    public boolean hasEdge(int u, int v) {
+        for (int i = 0; i < outDeg[u]; i++)
+            if (out[u][i] == v) return true;
+        return false;
+    }
+
+    /**
+     * Adds u -> v (parallel edges are kept). Returns false, without changing
+     * anything, if the edge would create a cycle.
+     */
+    public boolean insertEdge(int u, int v) {
+        check(u, v);
+        if (u == v) return false;
+        if (ord[u] > ord[v] && !reorder(u, v)) return false;
+        out[u] = append(out[u], outDeg[u]++, v);
+        in[v] = append(in[v], inDeg[v]++, u);
+        edges++;
+        return true;
+    }
+
+    // Removes one u -> v edge; returns false if there is none.
+    public boolean removeEdge(int u, int v) {
+        check(u, v);
+        if (!removeOne(out[u], outDeg[u], v)) return false;
+        outDeg[u]--;
+        removeOne(in[v], inDeg[v], u);
+        inDeg[v]--;
+        edges--;
+        return true;
+    }
+
+    public boolean insertEdge(int u, int v, Metrics metrics) {
+        long before = visits;
+        boolean inserted = insertEdge(u, v);
+        metrics.add(metrics.counterHandle("reorder_visits"), visits - before);
+        return inserted;
+    }
+
+    private boolean reorder(int u, int v) {
+        int lb = ord[v];
+        int ub = ord[u];
+        epoch++;
+
+        int nf = 0;
+        int sp = 0;
+        fwdMark[v] = epoch;
+        stack = ensure(stack, 1);
+        stack[sp++] = v;
+        while (sp > 0) {
+            int x = stack[--sp];
+            fwd = ensure(fwd, nf + 1);
+            fwd[nf++] = x;
+            for (int i = 0; i < outDeg[x]; i++) {
+                int y = out[x][i];
+                if (y == u) {
+                    visits += nf;
+                    return false;
+                }
+                if (ord[y] < ub && fwdMark[y] != epoch) {
+                    fwdMark[y] = epoch;
+                    stack = ensure(stack, sp + 1);
+                    stack[sp++] = y;
+                }
+            }
+        }
+
+        int nb = 0;
+        bwdMark[u] = epoch;
+        stack[sp++] = u;
+        while (sp > 0) {
+            int x = stack[--sp];
+            bwd = ensure(bwd, nb + 1);
+            bwd[nb++] = x;
+            for (int i = 0; i < inDeg[x]; i++) {
+                int y = in[x][i];
+                if (ord[y] > lb && bwdMark[y] != epoch) {
+                    bwdMark[y] = epoch;
+                    stack = ensure(stack, sp + 1);
+                    stack[sp++] = y;
+                }
+            }
+        }
+        visits += nf + nb;
+
+        // The backward set moves to the lowest of the pooled positions and the
+        // forward set to the highest, each keeping its internal order.
+        sortByOrd(bwd, nb);
+        sortByOrd(fwd, nf);
+        pool = ensure(pool, nf + nb);
+        for (int i = 0; i < nb; i++) pool[i] = ord[bwd[i]];
+        for (int i = 0; i < nf; i++) pool[nb + i] = ord[fwd[i]];
+        Arrays.sort(pool, 0, nf + nb);
+        for (int i = 0; i < nb; i++) place(bwd[i], pool[i]);
+        for (int i = 0; i < nf; i++) place(fwd[i], pool[nb + i]);
+        return true;
+    }
+
+    private void sortByOrd(int[] list, int len) {
+        for (int i = 0; i < len; i++) list[i] = ord[list[i]];
+        Arrays.sort(list, 0, len);
+        for (int i = 0; i < len; i++) list[i] = at[list[i]];
+    }
+
+    private void place(int v, int position) {
+        ord[v] = position;
+        at[position] = v;
+    }
+
+    private void check(int u, int v) {
+        if (u < 0 || u >= n || v < 0 || v >= n)
+            throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range for n = " + n);
+    }
+
+    private static int[] ensure(int[] a, int size) {
+        return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+    }
+
+    private static int[] append(int[] a, int index, int value) {
+        a = ensure(a, index + 1);
+        a[index] = value;
+        return a;
+    }
+
+    private static boolean removeOne(int[] a, int len, int value) {
+        for (int i = 0; i < len; i++) {
+            if (a[i] == value) {
+                a[i] = a[len - 1];
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package graph.topo;
+
+import java.util.*;
+
+/**
+ * Topological order grouped into levels: level 0 holds the sources, and a
+ * vertex is on level d + 1 when its deepest predecessor is on level d. The
+ * vertices of level l are order[levelStart(l) .. levelEnd(l)), sorted by id.
+ * Vertices on or behind a cycle never become ready; they have level -1 and
+ * are missing from the order.
+ */
+public final class LevelOrder {
+
+    private final int[] order;
+    private final int[] level;
+    private final int[] levelOffsets;
+
+    public LevelOrder(int[] order, int[] level, int[] levelOffsets) {
+        if (levelOffsets[levelOffsets.length - 1] != order.length)
+            throw new IllegalArgumentException("Level offsets do not cover the " + order.length + " ordered vertices");
+        this.order = order;
+        this.level = level;
+        this.levelOffsets = levelOffsets;
+    }
+
+    public int vertexCount() {
+        return level.length;
+    }
+
+    public boolean isAcyclic() {
+        return order.length == level.length;
+    }
+
+    public int[] orderArray() {
+        return order;
+    }
+
+    public List<Integer> order() {
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int v : order) list.add(v);
+        return list;
+    }
+
+    public int level(int v) {
+        return level[v];
+    }
+
+    public int[] levelArray() {
+        return level;
+    }
+
+    public int levelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    public int levelStart(int l) {
+        return levelOffsets[l];
+    }
+
+    public int levelEnd(int l) {
+        return levelOffsets[l + 1];
+    }
+
+    public int levelWidth(int l) {
+        return levelOffsets[l + 1] - levelOffsets[l];
+    }
+
+    public int[] levelWidths() {
+        int[] widths = new int[levelCount()];
+        for (int l = 0; l < widths.length; l++) widths[l] = levelWidth(l);
+        return widths;
+    }
+
+    public int[] levelMembers(int l) {
+        return Arrays.copyOfRange(order, levelOffsets[l], levelOffsets[l + 1]);
+    }
+}
@@ -0,0 +1,142 @@
+package graph.topo;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Level-synchronous Kahn sort on a ForkJoinPool. In-degrees live in an
+ * AtomicIntegerArray. Each frontier is split into chunks whose out-edges are
+ * processed in parallel: the thread whose decrement brings a vertex to zero
+ * appends it to the next level. Every level is then sorted by vertex id, so the
+ * output does not depend on scheduling. Small frontiers and graphs are handled
+ * on the calling worker without forking.
+ */
+public class ParallelTopoSort {
+
+    private static final int PARALLEL_FRONTIER = 4_096;
+    private static final int PARALLEL_EDGES = 1 << 16;
+
+    private final int parallelism;
+
+    public ParallelTopoSort() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelTopoSort(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public LevelOrder sort(CSRGraph dag, Metrics metrics) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(ForkJoinTask.adapt(() -> levels(dag, metrics)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static LevelOrder levels(CSRGraph dag, Metrics metrics) {
+        int n = dag.numVertices();
+        int m = dag.numEdges();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        if (m < PARALLEL_EDGES) {
+            for (int e = 0; e < m; e++) inDegree.getAndIncrement(dag.target(e));
+        } else {
+            List<RecursiveAction> chunks = new ArrayList<>();
+            for (int lo = 0; lo < m; lo += PARALLEL_EDGES) {
+                int from = lo;
+                int to = Math.min(m, lo + PARALLEL_EDGES);
+                chunks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        for (int e = from; e < to; e++) inDegree.getAndIncrement(dag.target(e));
+                    }
+                });
+            }
+            ForkJoinTask.invokeAll(chunks);
+        }
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        int tail = 0;
+        for (int v = 0; v < n; v++)
+            if (inDegree.get(v) == 0) order[tail++] = v;
+
+        int[] offsets = new int[16];
+        int levels = 0;
+        int levelStart = 0;
+        while (levelStart < tail) {
+            int levelEnd = tail;
+            for (int i = levelStart; i < levelEnd; i++) level[order[i]] = levels;
+            if (levels + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[levels++] = levelStart;
+
+            if (levelEnd - levelStart < PARALLEL_FRONTIER) {
+                for (int i = levelStart; i < levelEnd; i++)
+                    tail = release(dag, order[i], inDegree, order, tail);
+            } else {
+                List<Release> chunks = new ArrayList<>();
+                for (int lo = levelStart; lo < levelEnd; lo += PARALLEL_FRONTIER)
+                    chunks.add(new Release(dag, inDegree, order, lo, Math.min(levelEnd, lo + PARALLEL_FRONTIER)));
+                ForkJoinTask.invokeAll(chunks);
+                for (Release chunk : chunks) {
+                    System.arraycopy(chunk.found, 0, order, tail, chunk.size);
+                    tail += chunk.size;
+                }
+            }
+            Arrays.sort(order, levelEnd, tail);
+            levelStart = levelEnd;
+        }
+        offsets[levels] = tail;
+
+        metrics.add(metrics.counterHandle("pushes"), tail);
+        metrics.add(metrics.counterHandle("pops"), tail);
+        metrics.add(metrics.counterHandle("levels"), levels);
+        return new LevelOrder(tail == n ? order : Arrays.copyOf(order, tail), level,
+                Arrays.copyOf(offsets, levels + 1));
+    }
+
+    private static int release(CSRGraph dag, int v, AtomicIntegerArray inDegree, int[] out, int size) {
+        for (int e = dag.begin(v); e < dag.end(v); e++) {
+            int w = dag.target(e);
+            if (inDegree.decrementAndGet(w) == 0) out[size++] = w;
+        }
+        return size;
+    }
+
+    private static final class Release extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CSRGraph dag;
+        private final AtomicIntegerArray inDegree;
+        private final int[] frontier;
+        private final int lo, hi;
+        private int[] found = new int[16];
+        private int size;
+
+        Release(CSRGraph dag, AtomicIntegerArray inDegree, int[] frontier, int lo, int hi) {
+            this.dag = dag;
+            this.inDegree = inDegree;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = lo; i < hi; i++) {
+                int v = frontier[i];
+                int need = size + dag.outDegree(v);
+                if (need > found.length) found = Arrays.copyOf(found, Math.max(need, found.length * 2));
+                size = release(dag, v, inDegree, found, size);
+            }
+        }
+    }
+}
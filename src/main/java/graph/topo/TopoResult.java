@@ -0,0 +1,85 @@
+package graph.topo;
+
+import graph.core.CSRGraph;
+
+import java.util.*;
+
+/**
+ * Outcome of a Kahn-style sort. On a DAG the order covers every vertex. Otherwise
+ * the order is the acyclic prefix, the stuck vertices are those that never became
+ * ready (every cycle plus everything downstream of one), and cycle() is one
+ * concrete cycle among them, listed in edge direction: cycle[i] -> cycle[i + 1],
+ * and the last vertex -> cycle[0].
+ */
+public final class TopoResult {
+
+    private final int[] order;
+    private final int[] stuck;
+    private final int[] cycle;
+
+    private TopoResult(int[] order, int[] stuck, int[] cycle) {
+        this.order = order;
+        this.stuck = stuck;
+        this.cycle = cycle;
+    }
+
+    /**
+     * Wraps an order produced by any of the Kahn variants. A stuck vertex always
+     * has a stuck in-neighbor, or its in-degree would have reached zero, so
+     * walking in-edges backwards from one of them must revisit a vertex. The walk
+     * touches each stuck vertex and its in-edges at most once.
+     */
+    public static TopoResult of(CSRGraph dag, int[] order) {
+        int n = dag.numVertices();
+        if (order.length == n) return new TopoResult(order, new int[0], new int[0]);
+
+        boolean[] placed = new boolean[n];
+        for (int v : order) placed[v] = true;
+        int[] stuck = new int[n - order.length];
+        int k = 0;
+        for (int v = 0; v < n; v++)
+            if (!placed[v]) stuck[k++] = v;
+
+        CSRGraph rev = dag.reverse();
+        int[] step = new int[n];
+        Arrays.fill(step, -1);
+        int[] walk = new int[stuck.length + 1];
+        int len = 0;
+        int v = stuck[0];
+        while (step[v] < 0) {
+            step[v] = len;
+            walk[len++] = v;
+            int next = -1;
+            for (int e = rev.begin(v); e < rev.end(v) && next < 0; e++)
+                if (!placed[rev.target(e)]) next = rev.target(e);
+            v = next;
+        }
+
+        // walk[step[v] .. len) follows in-edges; reverse it to follow out-edges.
+        int[] cycle = new int[len - step[v]];
+        for (int i = 0; i < cycle.length; i++) cycle[i] = walk[len - 1 - i];
+        return new TopoResult(order, stuck, cycle);
+    }
+
+    public boolean isAcyclic() {
+        return stuck.length == 0;
+    }
+
+    public int[] order() {
+        return order;
+    }
+
+    public List<Integer> orderList() {
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int v : order) list.add(v);
+        return list;
+    }
+
+    public int[] stuckVertices() {
+        return stuck;
+    }
+
+    public int[] cycle() {
+        return cycle;
+    }
+}
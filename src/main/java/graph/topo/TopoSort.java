@@ -1,5 +1,6 @@
 package graph.topo;
 
+import graph.core.CSRGraph;
 import graph.metrics.*;
 
 import java.util.*;
@@ -32,41 +33,133 @@ public class TopoSort {
     }
 
     public static List<Integer> kahnTopologicalSort(List<Set<Integer>> dag, Metrics metrics) {
-        int n = dag.size();
-        int[] inDegree = new int[n];
-
-        for (int u = 0; u < n; u++)
-            for (int v : dag.get(u))
-                inDegree[v]++;
-
-        Queue<Integer> q = new LinkedList<>();
-        for (int i = 0; i < n; i++) {
-            if (inDegree[i] == 0) {
-                q.add(i);
-                metrics.incrementCounter("pushes");
+        return kahnTopologicalSort(CSRGraph.fromSets(dag), metrics);
+    }
+
+    // Partial on a cyclic graph; use topologicalSort to find out why.
+    public static List<Integer> kahnTopologicalSort(CSRGraph dag, Metrics metrics) {
+        int[] order = kahnOrder(dag, metrics);
+        List<Integer> topo = new ArrayList<>(order.length);
+        for (int v : order) topo.add(v);
+        return topo;
+    }
+
+    // FIFO Kahn order plus acyclicity, stuck vertices and a witness cycle.
+    public static TopoResult topologicalSort(CSRGraph dag, Metrics metrics) {
+        return TopoResult.of(dag, kahnOrder(dag, metrics));
+    }
+
+    // FIFO Kahn. The result array doubles as the queue: vertices are appended when
+    // their in-degree reaches zero and consumed from the front. Shorter than n on a cycle.
+    public static int[] kahnOrder(CSRGraph dag, Metrics metrics) {
+        int n = dag.numVertices();
+        int[] inDegree = inDegrees(dag);
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++)
+            if (inDegree[i] == 0) order[tail++] = i;
+
+        while (head < tail) {
+            int u = order[head++];
+            for (int e = dag.begin(u); e < dag.end(u); e++) {
+                int v = dag.target(e);
+                if (--inDegree[v] == 0) order[tail++] = v;
             }
         }
 
-        List<Integer> topo = new ArrayList<>();
+        metrics.add(metrics.counterHandle("pushes"), tail);
+        metrics.add(metrics.counterHandle("pops"), head);
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
 
-        while (!q.isEmpty()) {
-            int u = q.poll();
-            metrics.incrementCounter("pops");
-            topo.add(u);
+    // Lexicographically smallest topological order.
+    public static int[] kahnOrderSmallestFirst(CSRGraph dag, Metrics metrics) {
+        return kahnOrderByPriority(dag, null, metrics);
+    }
 
-            for (int v : dag.get(u)) {
-                inDegree[v]--;
-                if (inDegree[v] == 0) {
-                    q.add(v);
-                    metrics.incrementCounter("pushes");
+    // Among ready vertices, always takes the one with the lowest priority[v], ties by id.
+    // A null priority array means the vertex id itself.
+    public static int[] kahnOrderByPriority(CSRGraph dag, int[] priority, Metrics metrics) {
+        int n = dag.numVertices();
+        if (priority != null && priority.length != n)
+            throw new IllegalArgumentException("priority has " + priority.length + " entries, graph has " + n);
+        int[] inDegree = inDegrees(dag);
+        IntHeap ready = new IntHeap(n, priority);
+        for (int i = 0; i < n; i++)
+            if (inDegree[i] == 0) ready.push(i);
+
+        int[] order = new int[n];
+        int size = 0;
+        long pushes = ready.size();
+        while (ready.size() > 0) {
+            int u = ready.pop();
+            order[size++] = u;
+            for (int e = dag.begin(u); e < dag.end(u); e++) {
+                int v = dag.target(e);
+                if (--inDegree[v] == 0) {
+                    ready.push(v);
+                    pushes++;
                 }
             }
         }
 
-        if (topo.size() != n) {
-            System.out.println("Warning: The graph contains a cycle — topological sort incomplete.");
+        metrics.add(metrics.counterHandle("pushes"), pushes);
+        metrics.add(metrics.counterHandle("pops"), size);
+        return size == n ? order : Arrays.copyOf(order, size);
+    }
+
+    private static int[] inDegrees(CSRGraph dag) {
+        int[] inDegree = new int[dag.numVertices()];
+        for (int e = 0; e < dag.numEdges(); e++)
+            inDegree[dag.target(e)]++;
+        return inDegree;
+    }
+
+    // Binary min-heap of vertex ids ordered by (priority, id); each vertex is pushed at most once.
+    private static final class IntHeap {
+        private final int[] heap;
+        private final int[] priority;
+        private int size;
+
+        IntHeap(int capacity, int[] priority) {
+            this.heap = new int[capacity];
+            this.priority = priority;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void push(int v) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(v, heap[parent])) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = v;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+                if (!less(heap[child], last)) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
         }
 
-        return topo;
+        private boolean less(int a, int b) {
+            if (priority != null && priority[a] != priority[b]) return priority[a] < priority[b];
+            return a < b;
+        }
     }
 }
@@ -1,12 +1,24 @@
 package graph.tests;
 
+import graph.core.CSRGraph;
+import graph.io.GraphLoader;
+import graph.io.LoadedGraph;
 import graph.metrics.*;
+import graph.scc.Condensation;
 import graph.scc.Kosaraju;
+import graph.scc.SCCEngine;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
 import graph.topo.TopoSort;
+import graph.dagsp.BatchShortestPaths;
+import graph.dagsp.CondensationPaths;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.DistanceTable;
+import graph.dagsp.PathTree;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -144,4 +156,249 @@ public class GraphAlgorithmsTest {
 
         assertTrue(metrics.getElapsedTimeNs() >= 0, "Execution time must be non-negative");
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void testCSRGraphReverseAndAdjacency() {
+        CSRGraph g = CSRGraph.fromAdjacency(simpleDAG(), 4);
+        assertEquals(4, g.numVertices());
+        assertEquals(3, g.numEdges());
+        assertEquals(simpleDAG(), g.toAdjacency());
+
+        CSRGraph rev = g.reverse();
+        assertEquals(1, rev.outDegree(3));
+        assertEquals(2, rev.target(rev.begin(3)));
+        assertSame(g, rev.reverse(), "Reverse of the reverse should be the original graph");
+    }
+
+    @Test
+    void testFromArraysRejectsMalformedCSR() {
+        double[] w = {1, 1};
+        assertEquals(2, CSRGraph.fromArrays(2, new int[]{0, 1, 2}, new int[]{1, 0}, w).numEdges());
+        assertThrows(IllegalArgumentException.class, () -> CSRGraph.fromArrays(2, new int[]{1, 1, 2}, new int[]{1, 0}, w));
+        assertThrows(IllegalArgumentException.class, () -> CSRGraph.fromArrays(2, new int[]{0, 2, 1}, new int[]{1, 0}, w));
+        assertThrows(IllegalArgumentException.class, () -> CSRGraph.fromArrays(2, new int[]{0, 1, 2}, new int[]{1, 2}, w));
+    }
+
+    @Test
+    void testCSRShortestPathsMatchMatrixAdapter() {
+        CSRGraph g = CSRGraph.fromWeightMatrix(simpleWeights());
+        double[] viaCsr = DAGShortestPath.shortestPathDAG(g, new int[]{0, 1, 2, 3}, 0, new AlgorithmMetrics());
+        double[] viaMatrix = DAGShortestPath.shortestPathDAG(simpleWeights(), List.of(0, 1, 2, 3), 0, new AlgorithmMetrics());
+        assertArrayEquals(viaMatrix, viaCsr);
+    }
+
+    @Test
+    void testSCCLongChainDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i + 1 < n; i++) b.addEdge(i, i + 1);
+        b.addEdge(n - 1, 0);
+
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        List<List<Integer>> sccs = Kosaraju.findSCCs(b.build(), metrics);
+        assertEquals(1, sccs.size());
+        assertEquals(n, sccs.get(0).size());
+        assertEquals(2 * n, metrics.getCounter("DFS_visits"));
+        assertEquals(2 * n, metrics.getCounter("DFS_edges"));
+    }
+
+    @Test
+    void testTarjanMatchesKosarajuPartition() {
+        Random rnd = new Random(7);
+        int n = 2_000;
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < 3 * n; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n));
+        CSRGraph g = b.build();
+
+        List<List<Integer>> expected = Kosaraju.findSCCs(g, new AlgorithmMetrics());
+        List<List<Integer>> actual = SCCEngine.forName("tarjan").findComponents(g, new AlgorithmMetrics());
+        assertEquals(partitionOf(expected), partitionOf(actual));
+        assertEquals(1, Tarjan.findSCCs(CSRGraph.fromAdjacency(cyclicGraph(), 3), new AlgorithmMetrics()).size());
+    }
+
+    private Set<Set<Integer>> partitionOf(List<List<Integer>> sccs) {
+        Set<Set<Integer>> partition = new HashSet<>();
+        for (List<Integer> comp : sccs) partition.add(new HashSet<>(comp));
+        return partition;
+    }
+
+    @Test
+    void testCondensationDeduplicatesAndAggregatesWeights() {
+        CSRGraph.Builder b = new CSRGraph.Builder(5);
+        b.addEdge(0, 1, 1).addEdge(1, 0, 1);
+        b.addEdge(0, 2, 7).addEdge(1, 2, 3).addEdge(1, 2, 9);
+        b.addEdge(2, 3, 4).addEdge(2, 4, 2);
+        CSRGraph g = b.build();
+
+        SCCResult scc = new Kosaraju().decompose(g, new AlgorithmMetrics());
+        assertEquals(4, scc.componentCount());
+        assertEquals(scc.componentOf(0), scc.componentOf(1));
+
+        CSRGraph minDag = Condensation.build(g, scc, Condensation.WeightAggregation.MIN);
+        CSRGraph maxDag = Condensation.build(g, scc, Condensation.WeightAggregation.MAX);
+        int c01 = scc.componentOf(0);
+        assertEquals(1, minDag.outDegree(c01), "Parallel component edges must be merged");
+        assertEquals(3.0, minDag.weight(minDag.begin(c01)));
+        assertEquals(9.0, maxDag.weight(maxDag.begin(c01)));
+        assertEquals(3, minDag.numEdges());
+
+        List<Set<Integer>> sets = Kosaraju.buildCondensationGraph(g, scc.components());
+        assertEquals(Set.of(scc.componentOf(2)), sets.get(c01));
+    }
+
+    @Test
+    void testCondensationPathsMatchBellmanFordOnCyclicGraph() {
+        Random rnd = new Random(11);
+        int n = 300;
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < 900; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(5));
+        CSRGraph g = b.build();
+
+        SCCResult scc = new Kosaraju().decompose(g, new AlgorithmMetrics());
+        CSRGraph dag = Kosaraju.buildCondensationGraph(g, scc);
+        List<Integer> order = TopoSort.kahnTopologicalSort(dag, new AlgorithmMetrics());
+        double[] dist = new CondensationPaths(g, scc, order)
+                .shortestPaths(0, CondensationPaths.IntraComponentCost.SHORTEST_PATH, new AlgorithmMetrics());
+
+        double[] expected = new double[n];
+        Arrays.fill(expected, Double.POSITIVE_INFINITY);
+        expected[0] = 0;
+        for (int round = 0; round < n; round++)
+            for (int u = 0; u < n; u++)
+                for (int e = g.begin(u); e < g.end(u); e++)
+                    expected[g.target(e)] = Math.min(expected[g.target(e)], expected[u] + g.weight(e));
+        assertArrayEquals(expected, dist);
+    }
+
+    @Test
+    void testCondensationPathsZeroCostContractsCycles() {
+        CSRGraph.Builder b = new CSRGraph.Builder(4);
+        b.addEdge(0, 1, 5).addEdge(1, 0, 5).addEdge(1, 2, 2).addEdge(2, 3, 1).addEdge(0, 3, 10);
+        CSRGraph g = b.build();
+        SCCResult scc = new Kosaraju().decompose(g, new AlgorithmMetrics());
+        List<Integer> order = TopoSort.kahnTopologicalSort(Kosaraju.buildCondensationGraph(g, scc), new AlgorithmMetrics());
+        CondensationPaths paths = new CondensationPaths(g, scc, order);
+
+        assertArrayEquals(new double[]{0, 0, 2, 3},
+                paths.shortestPaths(0, CondensationPaths.IntraComponentCost.ZERO, new AlgorithmMetrics()));
+        assertArrayEquals(new double[]{0, 0, 2, 10},
+                paths.longestPaths(0, CondensationPaths.IntraComponentCost.ZERO, new AlgorithmMetrics()));
+        assertThrows(IllegalArgumentException.class, () ->
+                paths.longestPaths(0, CondensationPaths.IntraComponentCost.SHORTEST_PATH, new AlgorithmMetrics()));
+    }
+
+    @Test
+    void testBatchQueriesMatchSingleSourceRuns() {
+        Random rnd = new Random(5);
+        int n = 2_000;
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < 8_000; i++) {
+            int u = rnd.nextInt(n - 1);
+            b.addEdge(u, u + 1 + rnd.nextInt(n - u - 1), 1 + rnd.nextInt(9));
+        }
+        CSRGraph g = b.build();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+
+        int[] sources = {0, 17, 500, 1999, 3};
+        int[] targets = {1999, 1000, 4};
+        try (BatchShortestPaths batch = new BatchShortestPaths(g, order, 4)) {
+            DistanceTable full = batch.query(sources);
+            DistanceTable selected = batch.query(sources, targets);
+
+            double[] multi = new double[n];
+            Arrays.fill(multi, Double.POSITIVE_INFINITY);
+            for (int q = 0; q < sources.length; q++) {
+                double[] expected = DAGShortestPath.shortestPathDAG(g, order, sources[q], new AlgorithmMetrics());
+                assertArrayEquals(expected, full.column(q));
+                for (int t = 0; t < targets.length; t++)
+                    assertEquals(expected[targets[t]], selected.get(q, t));
+                for (int v = 0; v < n; v++) multi[v] = Math.min(multi[v], expected[v]);
+            }
+            assertArrayEquals(multi, batch.multiSource(sources));
+        }
+    }
+
+    @Test
+    void testPathReconstructionAndCriticalPath() {
+        CSRGraph.Builder b = new CSRGraph.Builder(5);
+        b.addEdge(0, 1, 2).addEdge(0, 2, 1).addEdge(2, 1, 4).addEdge(1, 3, 3).addEdge(2, 3, 1);
+        CSRGraph g = b.build();
+        int[] order = {0, 4, 2, 1, 3};
+
+        PathTree shortest = DAGShortestPath.shortestPathTree(g, order, 0, new AlgorithmMetrics());
+        assertEquals(2.0, shortest.distance(3));
+        assertArrayEquals(new int[]{0, 2, 3}, shortest.path(3));
+        assertEquals(0, shortest.path(4).length, "Unreachable vertex has no path");
+
+        PathTree longest = DAGShortestPath.longestPathTree(g, order, 0, new AlgorithmMetrics());
+        assertEquals(8.0, longest.distance(3));
+        assertEquals(List.of(0, 2, 1, 3), longest.pathList(3));
+
+        PathTree critical = DAGShortestPath.criticalPath(g, order, new AlgorithmMetrics());
+        assertEquals(3, critical.farthest());
+        assertArrayEquals(new int[]{0, 2, 1, 3}, critical.path(critical.farthest()));
+    }
+
+    @Test
+    void testCounterHandlesAreLongAndStable() {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        int handle = metrics.counterHandle("relaxations");
+        assertEquals(handle, metrics.counterHandle("relaxations"));
+        metrics.add(handle, Integer.MAX_VALUE);
+        metrics.add(handle, Integer.MAX_VALUE);
+        metrics.incrementCounter("relaxations");
+        assertEquals(2L * Integer.MAX_VALUE + 1, metrics.getCounter("relaxations"));
+        assertEquals(0, metrics.getCounter("missing"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getCounter("relaxations"));
+        metrics.add(handle, 3);
+        assertEquals(3, metrics.getCounter("relaxations"), "Handles stay valid after reset");
+    }
+
+    @Test
+    void testNoOpMetricsRecordsNothing() {
+        List<List<Integer>> sccs = Kosaraju.findSCCs(cyclicGraph(), 3, NoOpMetrics.INSTANCE);
+        assertEquals(1, sccs.size());
+        assertEquals(0, NoOpMetrics.INSTANCE.getCounter("DFS_visits"));
+    }
+
+    @Test
+    void testStreamingLoaderToleratesKeyOrder() throws IOException {
+        String json = "{\"edges\": [{\"w\": 2, \"v\": 1, \"u\": 0}, {\"u\": 1, \"v\": 2, \"w\": 3.5}],"
+                + " \"weight_model\": \"edge\", \"source\": 1, \"n\": 4}";
+        LoadedGraph loaded = GraphLoader.read(new StringReader(json), json.length(), System.nanoTime());
+        CSRGraph g = loaded.graph();
+
+        assertEquals(4, g.numVertices());
+        assertEquals(2, g.numEdges());
+        assertEquals(1, loaded.source());
+        assertEquals(1, g.target(g.begin(0)));
+        assertEquals(3.5, g.weight(g.begin(1)));
+    }
+
+    @Test
+    void testTrialStatsPercentiles() {
+        TrialStats stats = new TrialStats();
+        for (long ms = 10; ms >= 1; ms--) {
+            long elapsed = ms * 1_000_000;
+            stats.begin();
+            stats.end(new AlgorithmMetrics() {
+                @Override
+                public long getElapsedTimeNs() {
+                    return elapsed;
+                }
+            });
+        }
+
+        assertEquals(10, stats.trials());
+        assertEquals(1.0, stats.minMs(), 1e-9);
+        assertEquals(5.0, stats.medianMs(), 1e-9);
+        assertEquals(10.0, stats.percentileMs(95), 1e-9);
+        assertEquals(5.5, stats.meanMs(), 1e-9);
+        assertEquals(Math.sqrt(82.5 / 9), stats.stdDevMs(), 1e-9);
+        assertTrue(stats.gcCount(0) >= 0);
+    }
+}
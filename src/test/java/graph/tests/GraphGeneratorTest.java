@@ -0,0 +1,73 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.io.GraphLoader;
+import graph.metrics.*;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopoSort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameGraph(CSRGraph expected, CSRGraph actual) {
+        assertEquals(expected.numVertices(), actual.numVertices());
+        assertEquals(expected.numEdges(), actual.numEdges());
+        for (int u = 0; u < expected.numVertices(); u++)
+            assertEquals(expected.end(u), actual.end(u));
+        for (int e = 0; e < expected.numEdges(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+
+    @Test
+    void testJsonAndBinaryOutputsMatchInMemoryGraph() throws IOException {
+        for (GraphGenerator.Family family : GraphGenerator.Family.values()) {
+            GraphGenerator generator = new GraphGenerator(family, 5_000, 4, 7);
+            CSRGraph expected = generator.build();
+            assertEquals(generator.edgeCount(), expected.numEdges());
+
+            Path json = tempDir.resolve(family + ".json");
+            Path binary = tempDir.resolve(family + ".csrg");
+            generator.write(json);
+            generator.write(binary);
+            assertSameGraph(expected, GraphLoader.load(json).graph());
+            assertSameGraph(expected, GraphLoader.load(binary).graph());
+            assertSameGraph(expected, new GraphGenerator(family, 5_000, 4, 7).build());
+        }
+    }
+
+    @Test
+    void testFamiliesHaveTheirShape() {
+        CSRGraph chain = new GraphGenerator(GraphGenerator.Family.CHAIN, 1000, 1, 1).build();
+        assertEquals(999, chain.numEdges());
+
+        CSRGraph dag = new GraphGenerator(GraphGenerator.Family.DENSE_DAG, 20_000, 8, 1).build();
+        assertTrue(TopoSort.topologicalSort(dag, NoOpMetrics.INSTANCE).isAcyclic());
+
+        CSRGraph planted = new GraphGenerator(GraphGenerator.Family.PLANTED_SCC, 10_003, 3, 10, 1).build();
+        SCCResult scc = new Tarjan().decompose(planted, NoOpMetrics.INSTANCE);
+        assertEquals(1001, scc.componentCount());
+        assertEquals(10, scc.componentSize(scc.componentOf(0)));
+        assertEquals(3, scc.componentSize(scc.componentOf(10_002)));
+
+        CSRGraph powerLaw = new GraphGenerator(GraphGenerator.Family.POWER_LAW, 50_000, 6, 1).build();
+        double mean = powerLaw.numEdges() / 50_000.0;
+        assertTrue(mean > 4 && mean < 8, "mean degree " + mean);
+        int maxDegree = 0;
+        for (int u = 0; u < powerLaw.numVertices(); u++) maxDegree = Math.max(maxDegree, powerLaw.outDegree(u));
+        assertTrue(maxDegree > 100, "max degree " + maxDegree);
+    }
+}
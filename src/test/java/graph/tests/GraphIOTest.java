@@ -0,0 +1,186 @@
+package graph.tests;
+
+import graph.cache.CachedResult;
+import graph.cache.ResultCache;
+import graph.core.CSRGraph;
+import graph.dagsp.CondensationPaths;
+import graph.io.BinaryGraphFormat;
+import graph.io.GraphLoader;
+import graph.io.LoadedGraph;
+import graph.io.MappedCSRGraph;
+import graph.metrics.*;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+import graph.scc.Tarjan;
+import graph.topo.TopoSort;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphIOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameGraph(CSRGraph expected, CSRGraph actual) {
+        assertEquals(expected.numVertices(), actual.numVertices());
+        assertEquals(expected.numEdges(), actual.numEdges());
+        for (int u = 0; u < expected.numVertices(); u++) {
+            assertEquals(expected.begin(u), actual.begin(u));
+            assertEquals(expected.end(u), actual.end(u));
+        }
+        for (int e = 0; e < expected.numEdges(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+
+    @Test
+    void testBinaryRoundTripOfBundledDatasets() throws IOException {
+        File[] files = new File("src/main/resources/data/").listFiles((dir, name) -> name.endsWith(".json"));
+        assertNotNull(files);
+        for (File file : files) {
+            LoadedGraph json = GraphLoader.load(file);
+            Path bin = tempDir.resolve(file.getName().replace(".json", BinaryGraphFormat.EXTENSION));
+            BinaryGraphFormat.write(json.graph(), json.source(), bin);
+
+            LoadedGraph mapped = GraphLoader.load(bin);
+            assertTrue(mapped.graph() instanceof MappedCSRGraph);
+            assertEquals(json.source(), mapped.source());
+            assertSameGraph(json.graph(), mapped.graph());
+        }
+    }
+
+    @Test
+    void testAlgorithmsRunOnMappedGraph() throws IOException {
+        Random rnd = new Random(9);
+        int n = 50_000;
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < 150_000; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n), rnd.nextInt(10));
+        CSRGraph g = b.build();
+
+        Path bin = tempDir.resolve("random" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(g, 0, bin);
+        CSRGraph mapped = BinaryGraphFormat.load(bin).graph();
+
+        assertEquals(Kosaraju.findSCCs(g, new AlgorithmMetrics()), Kosaraju.findSCCs(mapped, new AlgorithmMetrics()));
+        assertEquals(Tarjan.findSCCs(g, new AlgorithmMetrics()), Tarjan.findSCCs(mapped, new AlgorithmMetrics()));
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path bogus = tempDir.resolve("bogus" + BinaryGraphFormat.EXTENSION);
+        Files.write(bogus, new byte[64]);
+        assertThrows(IOException.class, () -> BinaryGraphFormat.load(bogus));
+    }
+
+    @Test
+    void testMetricsExportRoundTripAndCompare() throws IOException {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("DFS_visits", 40L);
+        counters.put("DFS_edges", 36L);
+        List<MetricsRecord> base = Arrays.asList(
+                new MetricsRecord("r1", "a,b.json", "scc/kosaraju", 20, 18, 5, 3,
+                        1.0, 2.0, 3.0, 4.0, 0.5, 0, 0, 1024, counters),
+                new MetricsRecord("r1", "c.json", "topo/kahn", 7, 6, 7, 3,
+                        1.0, 1.0, 1.0, 1.0, 0, 0, 0, -1, Collections.emptyMap()));
+
+        for (String name : new String[]{"run.jsonl", "run.csv"}) {
+            Path file = tempDir.resolve(name);
+            MetricsExport.write(base, file);
+            List<MetricsRecord> back = MetricsExport.read(file);
+            assertEquals(2, back.size());
+            assertEquals("a,b.json", back.get(0).dataset());
+            assertEquals(2.0, back.get(0).medianMs());
+            assertEquals(counters, back.get(0).counters());
+            assertEquals(-1, back.get(1).allocatedBytes());
+            assertTrue(back.get(1).counters().isEmpty());
+        }
+
+        List<MetricsRecord> candidate = Arrays.asList(
+                new MetricsRecord("r2", "a,b.json", "scc/kosaraju", 20, 18, 5, 3,
+                        1.0, 2.5, 3.0, 4.0, 0.5, 0, 0, 1024, counters),
+                new MetricsRecord("r2", "c.json", "topo/kahn", 7, 6, 7, 3,
+                        1.0, 1.05, 1.0, 1.0, 0, 0, 0, -1, Collections.emptyMap()));
+        List<MetricsCompare.Delta> deltas = MetricsCompare.compare(base, candidate, 10, 0.0);
+        assertEquals(2, deltas.size());
+        assertTrue(deltas.get(0).isRegression());
+        assertEquals(25.0, deltas.get(0).changePercent(), 1e-9);
+        assertFalse(deltas.get(1).isRegression());
+    }
+
+    @Test
+    void testResultCacheServesUnchangedFilesOnly() throws IOException {
+        Path data = tempDir.resolve("small3.json");
+        Files.copy(Paths.get("src/main/resources/data/small3.json"), data);
+        LoadedGraph loaded = GraphLoader.load(data);
+        CSRGraph g = loaded.graph();
+        SCCResult scc = new Kosaraju().decompose(g, NoOpMetrics.INSTANCE);
+        CSRGraph dag = Kosaraju.buildCondensationGraph(g, scc);
+        int[] order = TopoSort.kahnOrder(dag, NoOpMetrics.INSTANCE);
+        double[] dist = new CondensationPaths(g, scc, order)
+                .shortestPaths(loaded.source(), CondensationPaths.IntraComponentCost.SHORTEST_PATH, NoOpMetrics.INSTANCE);
+        CachedResult result = CachedResult.of(g, loaded.source(), scc, dag, order, dist);
+        assertEquals(result, CachedResult.fromBytes(result.toBytes()));
+        assertSameGraph(dag, result.condensation());
+
+        Path dir = tempDir.resolve("cache");
+        String key = ResultCache.key(data, "Kosaraju", "none", "intra=SHORTEST_PATH");
+        assertNotEquals(key, ResultCache.key(data, "Tarjan", "none", "intra=SHORTEST_PATH"));
+        assertNotEquals(key, ResultCache.key(data, "Kosaraju", "RCM", "intra=SHORTEST_PATH"));
+        ResultCache cache = new ResultCache(dir, 1 << 20);
+        assertNull(cache.get(key));
+        cache.put(key, result);
+        assertEquals(result, cache.get(key));
+        assertEquals(1, cache.hits());
+
+        ResultCache cold = new ResultCache(dir, 0);
+        assertEquals(result, cold.get(key));
+        assertEquals(1, cold.diskHits());
+        assertEquals(0, cold.memoryEntries());
+
+        Files.write(data, " ".getBytes(), StandardOpenOption.APPEND);
+        assertNull(cold.get(ResultCache.key(data, "Kosaraju", "none", "intra=SHORTEST_PATH")));
+    }
+
+    @Test
+    void testPhaseRecorderCountsAndEmitsEvents() throws IOException {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        PhaseRecorder phases = new PhaseRecorder("small3.json", metrics);
+        Path jfr = tempDir.resolve("phases.jfr");
+        CSRGraph g;
+        try (Recording recording = new Recording()) {
+            recording.enable("graph.Phase");
+            recording.start();
+            g = GraphLoader.load(Paths.get("src/main/resources/data/small3.json"), phases).graph();
+            phases.setMeasured(false);
+            phases.begin(PhaseRecorder.Phase.SCC);
+            new Kosaraju().decompose(g, NoOpMetrics.INSTANCE);
+            phases.end(PhaseRecorder.Phase.SCC, g.numVertices(), g.numEdges());
+            recording.stop();
+            recording.dump(jfr);
+        }
+
+        assertTrue(metrics.getCounter("load_ns") > 0);
+        assertTrue(metrics.getCounter("build_ns") > 0);
+        assertEquals(0, metrics.getCounter("scc_ns"));
+
+        Map<String, RecordedEvent> events = new HashMap<>();
+        for (RecordedEvent e : RecordingFile.readAllEvents(jfr)) events.put(e.getString("phase"), e);
+        assertEquals(new HashSet<>(Arrays.asList("load", "build", "scc")), events.keySet());
+        assertEquals("small3.json", events.get("build").getString("dataset"));
+        assertEquals(g.numVertices(), events.get("build").getLong("vertices"));
+        assertEquals(g.numEdges(), events.get("build").getLong("edges"));
+        assertFalse(events.get("build").getBoolean("warmup"));
+        assertTrue(events.get("scc").getBoolean("warmup"));
+    }
+}
@@ -0,0 +1,88 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+import graph.scc.Condensation;
+import graph.scc.IncrementalSCC;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalSCCTest {
+
+    private Set<Set<Integer>> partitionOf(List<List<Integer>> sccs) {
+        Set<Set<Integer>> partition = new HashSet<>();
+        for (List<Integer> comp : sccs) partition.add(new HashSet<>(comp));
+        return partition;
+    }
+
+    private CSRGraph build(int n, List<int[]> edges) {
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int[] e : edges) b.addEdge(e[0], e[1]);
+        return b.build();
+    }
+
+    private void assertMatchesFullRerun(IncrementalSCC inc, CSRGraph g) {
+        SCCResult expected = new Kosaraju().decompose(g, new AlgorithmMetrics());
+        SCCResult actual = inc.snapshot();
+        assertEquals(expected.componentCount(), inc.componentCount());
+        assertEquals(partitionOf(expected.components()), partitionOf(actual.components()));
+
+        for (int u = 0; u < g.numVertices(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++)
+                assertTrue(actual.componentOf(u) <= actual.componentOf(g.target(e)));
+
+        CSRGraph expectedDag = Condensation.build(g, actual, Condensation.WeightAggregation.UNIT);
+        CSRGraph actualDag = inc.condensation();
+        assertEquals(expectedDag.toAdjacency(), actualDag.toAdjacency());
+    }
+
+    @Test
+    void testClosingAChainMergesEverything() {
+        List<int[]> edges = new ArrayList<>(Arrays.asList(new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 3}, new int[]{4, 2}));
+        IncrementalSCC inc = new IncrementalSCC(build(5, edges));
+        assertEquals(5, inc.componentCount());
+
+        assertEquals(0, inc.insertEdge(0, 3));
+        assertEquals(2, inc.insertEdge(3, 1));
+        assertEquals(3, inc.componentCount());
+        assertTrue(inc.sameComponent(1, 3));
+        assertFalse(inc.sameComponent(0, 1));
+
+        edges.add(new int[]{0, 3});
+        edges.add(new int[]{3, 1});
+        edges.add(new int[]{2, 0});
+        inc.insertEdges(new int[]{2}, new int[]{0}, new AlgorithmMetrics());
+        assertMatchesFullRerun(inc, build(5, edges));
+        assertEquals(2, inc.componentCount());
+    }
+
+    @Test
+    void testRandomBatchesMatchKosaraju() {
+        Random rnd = new Random(11);
+        int n = 2000;
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) edges.add(new int[]{rnd.nextInt(n), rnd.nextInt(n)});
+        IncrementalSCC inc = new IncrementalSCC(build(n, edges), new Kosaraju().decompose(build(n, edges), new AlgorithmMetrics()));
+
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        for (int batch = 0; batch < 60; batch++) {
+            int k = 1 + rnd.nextInt(20);
+            int[] from = new int[k];
+            int[] to = new int[k];
+            for (int i = 0; i < k; i++) {
+                from[i] = rnd.nextInt(n);
+                to[i] = rnd.nextInt(n);
+                edges.add(new int[]{from[i], to[i]});
+            }
+            inc.insertEdges(from, to, metrics);
+            assertMatchesFullRerun(inc, build(n, edges));
+        }
+        assertTrue(metrics.getCounter("merges") > 0);
+    }
+}
@@ -0,0 +1,66 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.io.GraphLoader;
+import graph.metrics.*;
+import graph.scc.Kosaraju;
+import graph.scc.ParallelSCC;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSCCTest {
+
+    private CSRGraph randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < m; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n));
+        return b.build();
+    }
+
+    private Set<Set<Integer>> partitionOf(List<List<Integer>> sccs) {
+        Set<Set<Integer>> partition = new HashSet<>();
+        for (List<Integer> comp : sccs) partition.add(new HashSet<>(comp));
+        return partition;
+    }
+
+    private void assertSamePartition(CSRGraph g, int parallelism) {
+        List<List<Integer>> expected = Kosaraju.findSCCs(g, new AlgorithmMetrics());
+        List<List<Integer>> actual = ParallelSCC.findSCCs(g, parallelism, new AlgorithmMetrics());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(partitionOf(expected), partitionOf(actual));
+    }
+
+    @Test
+    void testMatchesKosarajuOnBundledDatasets() throws IOException {
+        File[] files = new File("src/main/resources/data/").listFiles((dir, name) -> name.endsWith(".json"));
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+        for (File file : files) {
+            assertSamePartition(GraphLoader.load(file).graph(), 4);
+        }
+    }
+
+    @Test
+    void testMatchesKosarajuOnLargeRandomGraphs() {
+        assertSamePartition(randomGraph(200_000, 220_000, 1), 4);
+        assertSamePartition(randomGraph(200_000, 600_000, 2), 4);
+        assertSamePartition(randomGraph(50_000, 50_000, 3), 1);
+    }
+
+    @Test
+    void testComponentsAreInTopologicalOrder() {
+        CSRGraph g = randomGraph(100_000, 150_000, 4);
+        List<List<Integer>> sccs = ParallelSCC.findSCCs(g, 4, new AlgorithmMetrics());
+        int[] compOf = new int[g.numVertices()];
+        for (int i = 0; i < sccs.size(); i++)
+            for (int v : sccs.get(i)) compOf[v] = i;
+        for (int u = 0; u < g.numVertices(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++)
+                assertTrue(compOf[u] <= compOf[g.target(e)]);
+    }
+}
@@ -0,0 +1,93 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.gen.GraphGenerator;
+import graph.metrics.*;
+import graph.reach.ReachabilityIndex;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachabilityIndexTest {
+
+    private static boolean[] reachableFrom(CSRGraph g, int s) {
+        boolean[] seen = new boolean[g.numVertices()];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(s);
+        seen[s] = true;
+        while (!stack.isEmpty()) {
+            int u = stack.pop();
+            for (int e = g.begin(u); e < g.end(u); e++) {
+                if (!seen[g.target(e)]) {
+                    seen[g.target(e)] = true;
+                    stack.push(g.target(e));
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static void assertMatchesTraversal(CSRGraph g, ReachabilityIndex index, int sources, long seed) {
+        Random rnd = new Random(seed);
+        for (int i = 0; i < sources; i++) {
+            int u = rnd.nextInt(g.numVertices());
+            boolean[] expected = reachableFrom(g, u);
+            for (int v = 0; v < g.numVertices(); v++)
+                assertEquals(expected[v], index.reaches(u, v), index.mode() + " " + u + " -> " + v);
+        }
+    }
+
+    @Test
+    void testAllModesAgreeWithTraversal() {
+        for (long seed = 1; seed <= 4; seed++) {
+            Random rnd = new Random(seed);
+            int n = 1_500;
+            CSRGraph.Builder b = new CSRGraph.Builder(n);
+            for (int i = 0; i < 2_200; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n));
+            CSRGraph g = b.build();
+            SCCResult scc = new Kosaraju().decompose(g, NoOpMetrics.INSTANCE);
+
+            ReachabilityIndex bitset = ReachabilityIndex.build(g, scc, 64L << 20, NoOpMetrics.INSTANCE);
+            assertEquals(ReachabilityIndex.Mode.BITSET, bitset.mode());
+            assertMatchesTraversal(g, bitset, 60, seed);
+
+            AlgorithmMetrics metrics = new AlgorithmMetrics();
+            ReachabilityIndex labels = ReachabilityIndex.build(g, scc, 0, metrics);
+            assertEquals(ReachabilityIndex.Mode.LANDMARK, labels.mode());
+            assertFalse(labels.isComplete());
+            assertMatchesTraversal(g, labels, 60, seed);
+            assertTrue(labels.fallbackSearches() > 0);
+            assertEquals(labels.labelEntries(), metrics.getCounter("reach_label_entries"));
+
+            long closureBytes = (long) scc.componentCount() * ((scc.componentCount() + 63) / 64) * 8;
+            ReachabilityIndex complete = ReachabilityIndex.build(g, scc, closureBytes - 1, NoOpMetrics.INSTANCE);
+            assertEquals(ReachabilityIndex.Mode.LANDMARK, complete.mode());
+            assertTrue(complete.isComplete());
+            assertMatchesTraversal(g, complete, 60, seed);
+            assertEquals(0, complete.fallbackSearches());
+        }
+    }
+
+    @Test
+    void testPlantedClustersAndChain() {
+        CSRGraph planted = new GraphGenerator(GraphGenerator.Family.PLANTED_SCC, 4_000, 3, 7).build();
+        SCCResult scc = new Kosaraju().decompose(planted, NoOpMetrics.INSTANCE);
+        ReachabilityIndex index = ReachabilityIndex.build(planted, scc, 1 << 14, NoOpMetrics.INSTANCE);
+        assertEquals(ReachabilityIndex.Mode.LANDMARK, index.mode());
+        assertTrue(index.reaches(3, 0));
+        assertFalse(index.reaches(8, 0));
+        assertMatchesTraversal(planted, index, 20, 5);
+
+        CSRGraph chain = new GraphGenerator(GraphGenerator.Family.CHAIN, 10_000, 1, 1).build();
+        ReachabilityIndex line = ReachabilityIndex.build(chain,
+                new Kosaraju().decompose(chain, NoOpMetrics.INSTANCE), 0, NoOpMetrics.INSTANCE);
+        assertTrue(line.reaches(0, 9_999));
+        assertFalse(line.reaches(9_999, 0));
+        assertEquals(0, line.fallbackSearches());
+    }
+}
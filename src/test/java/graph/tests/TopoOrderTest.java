@@ -0,0 +1,232 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.metrics.*;
+import graph.topo.DynamicTopoOrder;
+import graph.topo.LevelOrder;
+import graph.topo.ParallelTopoSort;
+import graph.topo.TopoResult;
+import graph.topo.TopoSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopoOrderTest {
+
+    private boolean reaches(List<List<Integer>> adj, int from, int to) {
+        boolean[] seen = new boolean[adj.size()];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(from);
+        seen[from] = true;
+        while (!stack.isEmpty()) {
+            int x = stack.pop();
+            if (x == to) return true;
+            for (int y : adj.get(x)) {
+                if (!seen[y]) {
+                    seen[y] = true;
+                    stack.push(y);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void assertValidOrder(DynamicTopoOrder topo, List<List<Integer>> adj) {
+        int[] order = topo.order();
+        boolean[] seen = new boolean[order.length];
+        for (int i = 0; i < order.length; i++) {
+            assertFalse(seen[order[i]]);
+            seen[order[i]] = true;
+            assertEquals(i, topo.position(order[i]));
+        }
+        for (int u = 0; u < adj.size(); u++)
+            for (int v : adj.get(u))
+                assertTrue(topo.precedes(u, v), u + " -> " + v);
+    }
+
+    @Test
+    void testDynamicOrderRejectsCycles() {
+        CSRGraph chain = new CSRGraph.Builder(4).addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).build();
+        DynamicTopoOrder topo = new DynamicTopoOrder(chain);
+
+        assertFalse(topo.insertEdge(3, 0));
+        assertFalse(topo.insertEdge(2, 2));
+        assertEquals(3, topo.numEdges());
+
+        assertTrue(topo.removeEdge(1, 2));
+        assertFalse(topo.removeEdge(1, 2));
+        assertTrue(topo.insertEdge(3, 1));
+        assertTrue(topo.precedes(3, 1));
+        assertTrue(topo.precedes(2, 3));
+        assertFalse(topo.insertEdge(1, 2));
+
+        CSRGraph cyclic = new CSRGraph.Builder(3).addEdge(0, 1).addEdge(1, 2).addEdge(2, 1).build();
+        assertThrows(IllegalArgumentException.class, () -> new DynamicTopoOrder(cyclic));
+        CSRGraph empty = new CSRGraph.Builder(3).build();
+        assertThrows(IllegalArgumentException.class, () -> new DynamicTopoOrder(empty, new int[]{0, 0, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new DynamicTopoOrder(empty, new int[]{0, 1, 3}));
+    }
+
+    @Test
+    void testRandomUpdatesKeepAValidOrder() {
+        Random rnd = new Random(5);
+        int n = 300;
+        List<List<Integer>> adj = new ArrayList<>();
+        for (int i = 0; i < n; i++) adj.add(new ArrayList<>());
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < 400; i++) {
+            int u = rnd.nextInt(n - 1);
+            int v = u + 1 + rnd.nextInt(n - u - 1);
+            b.addEdge(u, v);
+            adj.get(u).add(v);
+        }
+        DynamicTopoOrder topo = new DynamicTopoOrder(b.build());
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+
+        for (int step = 0; step < 2000; step++) {
+            int u = rnd.nextInt(n);
+            if (rnd.nextInt(4) == 0 && !adj.get(u).isEmpty()) {
+                Integer v = adj.get(u).remove(rnd.nextInt(adj.get(u).size()));
+                assertTrue(topo.removeEdge(u, v));
+            } else {
+                int v = rnd.nextInt(n);
+                boolean cycle = reaches(adj, v, u);
+                assertEquals(!cycle, topo.insertEdge(u, v, metrics));
+                if (!cycle) adj.get(u).add(v);
+            }
+            if (step % 50 == 0) assertValidOrder(topo, adj);
+        }
+        assertValidOrder(topo, adj);
+        assertTrue(metrics.getCounter("reorder_visits") > 0);
+    }
+
+    private CSRGraph randomDag(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = perm[i];
+            perm[i] = perm[j];
+            perm[j] = t;
+        }
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n - 1);
+            int v = u + 1 + rnd.nextInt(Math.min(50, n - u - 1));
+            b.addEdge(perm[u], perm[v]);
+        }
+        return b.build();
+    }
+
+    @Test
+    void testParallelLevelsMatchLongestPathDepth() {
+        CSRGraph dag = randomDag(200_000, 1_000_000, 8);
+        LevelOrder levels = new ParallelTopoSort(4).sort(dag, new AlgorithmMetrics());
+        assertTrue(levels.isAcyclic());
+
+        int[] order = levels.orderArray();
+        int[] depth = new int[dag.numVertices()];
+        for (int v : order)
+            for (int e = dag.begin(v); e < dag.end(v); e++)
+                depth[dag.target(e)] = Math.max(depth[dag.target(e)], depth[v] + 1);
+
+        int total = 0;
+        for (int l = 0; l < levels.levelCount(); l++) {
+            for (int i = levels.levelStart(l); i < levels.levelEnd(l); i++) {
+                assertEquals(l, levels.level(order[i]));
+                assertEquals(l, depth[order[i]]);
+                if (i > levels.levelStart(l)) assertTrue(order[i - 1] < order[i]);
+            }
+            total += levels.levelWidth(l);
+        }
+        assertEquals(dag.numVertices(), total);
+        assertArrayEquals(order, new ParallelTopoSort(1).sort(dag, NoOpMetrics.INSTANCE).orderArray());
+    }
+
+    @Test
+    void testParallelSortLeavesCyclesOut() {
+        CSRGraph g = new CSRGraph.Builder(5).addEdge(0, 1).addEdge(1, 2).addEdge(2, 1).addEdge(2, 3).addEdge(0, 4).build();
+        LevelOrder levels = new ParallelTopoSort(2).sort(g, new AlgorithmMetrics());
+        assertFalse(levels.isAcyclic());
+        assertEquals(Arrays.asList(0, 4), levels.order());
+        assertArrayEquals(new int[]{1, 1}, levels.levelWidths());
+        assertEquals(-1, levels.level(3));
+    }
+
+    @Test
+    void testPrimitiveKahnOrders() {
+        CSRGraph g = new CSRGraph.Builder(6)
+                .addEdge(5, 2).addEdge(5, 0).addEdge(4, 0).addEdge(4, 1).addEdge(2, 3).addEdge(3, 1).build();
+
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        assertArrayEquals(new int[]{4, 5, 2, 0, 3, 1}, TopoSort.kahnOrder(g, metrics));
+        assertEquals(6, metrics.getCounter("pushes"));
+        assertEquals(TopoSort.kahnTopologicalSort(g, NoOpMetrics.INSTANCE),
+                Arrays.asList(4, 5, 2, 0, 3, 1));
+
+        assertArrayEquals(new int[]{4, 5, 0, 2, 3, 1}, TopoSort.kahnOrderSmallestFirst(g, NoOpMetrics.INSTANCE));
+        int[] priority = {0, 0, 9, 0, 1, 0};
+        assertArrayEquals(new int[]{5, 4, 0, 2, 3, 1},
+                TopoSort.kahnOrderByPriority(g, priority, NoOpMetrics.INSTANCE));
+    }
+
+    @Test
+    void testSmallestFirstIsLexicographicallyMinimal() {
+        CSRGraph dag = randomDag(50_000, 150_000, 3);
+        int[] order = TopoSort.kahnOrderSmallestFirst(dag, NoOpMetrics.INSTANCE);
+        assertEquals(dag.numVertices(), order.length);
+
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) position[order[i]] = i;
+        for (int u = 0; u < dag.numVertices(); u++)
+            for (int e = dag.begin(u); e < dag.end(u); e++)
+                assertTrue(position[u] < position[dag.target(e)]);
+
+        // Each pick must be the smallest vertex whose predecessors have all been placed.
+        int[] inDegree = new int[order.length];
+        for (int e = 0; e < dag.numEdges(); e++) inDegree[dag.target(e)]++;
+        TreeSet<Integer> ready = new TreeSet<>();
+        for (int v = 0; v < order.length; v++) if (inDegree[v] == 0) ready.add(v);
+        for (int v : order) {
+            assertEquals(ready.pollFirst().intValue(), v);
+            for (int e = dag.begin(v); e < dag.end(v); e++)
+                if (--inDegree[dag.target(e)] == 0) ready.add(dag.target(e));
+        }
+    }
+
+    @Test
+    void testTopoResultReportsWitnessCycle() {
+        // 0 -> 1 -> 2 -> 3 -> 1 is a cycle; 4 hangs below it, 5 is independent.
+        CSRGraph g = new CSRGraph.Builder(6)
+                .addEdge(0, 1).addEdge(1, 2).addEdge(2, 3).addEdge(3, 1).addEdge(3, 4).addEdge(5, 4).build();
+        TopoResult result = TopoSort.topologicalSort(g, new AlgorithmMetrics());
+
+        assertFalse(result.isAcyclic());
+        assertArrayEquals(new int[]{0, 5}, result.order());
+        assertArrayEquals(new int[]{1, 2, 3, 4}, result.stuckVertices());
+
+        int[] cycle = result.cycle();
+        assertEquals(3, cycle.length);
+        assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(Arrays.asList(cycle[0], cycle[1], cycle[2])));
+        for (int i = 0; i < cycle.length; i++) {
+            int u = cycle[i];
+            int v = cycle[(i + 1) % cycle.length];
+            boolean edge = false;
+            for (int e = g.begin(u); e < g.end(u); e++) edge |= g.target(e) == v;
+            assertTrue(edge, u + " -> " + v);
+        }
+
+        TopoResult selfLoop = TopoSort.topologicalSort(new CSRGraph.Builder(2).addEdge(0, 1).addEdge(1, 1).build(),
+                NoOpMetrics.INSTANCE);
+        assertArrayEquals(new int[]{1}, selfLoop.cycle());
+
+        TopoResult dag = TopoSort.topologicalSort(randomDag(1000, 3000, 2), NoOpMetrics.INSTANCE);
+        assertTrue(dag.isAcyclic());
+        assertEquals(0, dag.cycle().length);
+        assertEquals(1000, dag.order().length);
+    }
+}
@@ -0,0 +1,119 @@
+package graph.tests;
+
+import graph.core.CSRGraph;
+import graph.dagsp.CondensationPaths;
+import graph.metrics.*;
+import graph.reorder.VertexReordering;
+import graph.scc.Kosaraju;
+import graph.scc.SCCResult;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VertexReorderingTest {
+
+    private static CSRGraph randomGraph(int n, int m, long seed) {
+        Random rnd = new Random(seed);
+        CSRGraph.Builder b = new CSRGraph.Builder(n);
+        for (int i = 0; i < m; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(9));
+        return b.build();
+    }
+
+    private static long bandwidthSum(CSRGraph g) {
+        long sum = 0;
+        for (int u = 0; u < g.numVertices(); u++)
+            for (int e = g.begin(u); e < g.end(u); e++) sum += Math.abs(u - g.target(e));
+        return sum;
+    }
+
+    @Test
+    void testResultsMapBackToOriginalIds() {
+        CondensationPaths.IntraComponentCost cost = CondensationPaths.IntraComponentCost.SHORTEST_PATH;
+        for (long seed = 1; seed <= 5; seed++) {
+            CSRGraph g = randomGraph(2_000, 2_600, seed);
+            SCCResult expected = new Kosaraju().decompose(g, NoOpMetrics.INSTANCE);
+            double[] expectedDist = new CondensationPaths(g, expected, identity(expected.componentCount()))
+                    .shortestPaths(0, cost, NoOpMetrics.INSTANCE);
+
+            for (VertexReordering.Strategy strategy : VertexReordering.Strategy.values()) {
+                VertexReordering r = VertexReordering.compute(g, strategy);
+                boolean[] used = new boolean[g.numVertices()];
+                for (int v = 0; v < g.numVertices(); v++) {
+                    assertFalse(used[r.toPermuted(v)]);
+                    used[r.toPermuted(v)] = true;
+                    assertEquals(v, r.toOriginal(r.toPermuted(v)));
+                }
+
+                CSRGraph p = r.permute(g);
+                assertEquals(g.numEdges(), p.numEdges());
+                SCCResult scc = r.toOriginal(new Kosaraju().decompose(p, NoOpMetrics.INSTANCE));
+                assertEquals(expected.componentCount(), scc.componentCount());
+                for (int u = 0; u < g.numVertices(); u++) {
+                    for (int e = g.begin(u); e < g.end(u); e++) {
+                        int v = g.target(e);
+                        assertEquals(expected.componentOf(u) == expected.componentOf(v),
+                                scc.componentOf(u) == scc.componentOf(v), strategy + " edge " + u + "->" + v);
+                        assertTrue(scc.componentOf(u) <= scc.componentOf(v));
+                    }
+                }
+                for (int c = 0; c < scc.componentCount(); c++)
+                    for (int v : scc.members(c)) assertEquals(c, scc.componentOf(v));
+
+                SCCResult permutedScc = new Kosaraju().decompose(p, NoOpMetrics.INSTANCE);
+                double[] dist = r.toOriginal(new CondensationPaths(p, permutedScc,
+                        identity(permutedScc.componentCount())).shortestPaths(r.toPermuted(0), cost, NoOpMetrics.INSTANCE));
+                assertArrayEquals(expectedDist, dist, strategy.toString());
+            }
+        }
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        return order;
+    }
+
+    @Test
+    void testLocalityRecoveredFromShuffledIds() {
+        int side = 100;
+        CSRGraph.Builder b = new CSRGraph.Builder(side * side);
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                if (j + 1 < side) b.addEdge(i * side + j, i * side + j + 1);
+                if (i + 1 < side) b.addEdge(i * side + j, (i + 1) * side + j);
+            }
+        }
+        CSRGraph grid = b.build();
+        List<Integer> ids = new ArrayList<>();
+        for (int v = 0; v < grid.numVertices(); v++) ids.add(v);
+        Collections.shuffle(ids, new Random(3));
+        int[] shuffle = new int[ids.size()];
+        for (int v = 0; v < shuffle.length; v++) shuffle[v] = ids.get(v);
+        CSRGraph shuffled = VertexReordering.of(shuffle).permute(grid);
+
+        long before = bandwidthSum(shuffled);
+        for (VertexReordering.Strategy strategy : new VertexReordering.Strategy[]{
+                VertexReordering.Strategy.BFS, VertexReordering.Strategy.DFS, VertexReordering.Strategy.RCM}) {
+            long after = bandwidthSum(VertexReordering.compute(shuffled, strategy).permute(shuffled));
+            assertTrue(after * 10 < before, strategy + ": " + after + " vs " + before);
+        }
+        CSRGraph rcm = VertexReordering.compute(shuffled, VertexReordering.Strategy.RCM).permute(shuffled);
+        for (int u = 0; u < rcm.numVertices(); u++)
+            for (int e = rcm.begin(u); e < rcm.end(u); e++) assertTrue(Math.abs(u - rcm.target(e)) <= 2 * side);
+    }
+
+    @Test
+    void testDegreeOrderAndValidation() {
+        CSRGraph.Builder b = new CSRGraph.Builder(4);
+        b.addEdge(3, 0).addEdge(3, 1).addEdge(3, 2).addEdge(1, 2);
+        VertexReordering r = VertexReordering.compute(b.build(), VertexReordering.Strategy.DEGREE);
+        assertEquals(3, r.toOriginal(0));
+        assertEquals(1, r.toOriginal(1));
+        assertEquals(2, r.toOriginal(2));
+        assertEquals(0, r.toOriginal(3));
+        assertThrows(IllegalArgumentException.class, () -> VertexReordering.of(new int[]{0, 0}));
+    }
+}